@@ -0,0 +1,48 @@
+package net.benwoodworth.localeconfig.api;
+
+import net.md_5.bungee.api.ChatColor;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds BungeeCord chat components from substituted locale text, without parsing legacy formatting codes.
+ * <p>
+ * Usage:
+ * <pre>
+ *     BaseComponent[] message = localeText.substituteSpans(new BungeeComponentBuilder(), substitutions).build();
+ * </pre>
+ */
+public final class BungeeComponentBuilder implements TextSpanVisitor {
+    private final List<BaseComponent> components = new ArrayList<>();
+
+    @Override
+    public void visitSpan(@NotNull String text, @NotNull TextStyle style) {
+        TextComponent component = new TextComponent(text);
+
+        char colorCode = style.getColorCode();
+        if (colorCode != 0) {
+            component.setColor(ChatColor.getByChar(colorCode));
+        }
+
+        // Set explicitly, so spans don't inherit decorations from the components they're added to
+        component.setBold(style.isBold());
+        component.setItalic(style.isItalic());
+        component.setUnderlined(style.isUnderlined());
+        component.setStrikethrough(style.isStrikethrough());
+        component.setObfuscated(style.isObfuscated());
+
+        components.add(component);
+    }
+
+    /**
+     * @return the components built so far.
+     */
+    @NotNull
+    public BaseComponent[] build() {
+        return components.toArray(new BaseComponent[0]);
+    }
+}
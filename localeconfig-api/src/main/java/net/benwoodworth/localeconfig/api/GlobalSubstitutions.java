@@ -0,0 +1,122 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable set of global substitutions, e.g. <code>$red</code>, which are substituted in all locale text.
+ * <p>
+ * Globals are folded into locale text when it's compiled, so they're never looked up while substituting.
+ * Changing a global replaces the current set, and locale text compiled with a previous set is compiled again.
+ */
+final class GlobalSubstitutions {
+    // The maximum number of user keys to remember as validated, in case keys are generated
+    private static final int MAX_VALIDATED_KEYS = 4096;
+
+    private static final Map<String, String> builtInSubstitutions = new HashMap<>();
+
+    // region Built-in Substitutions
+    static {
+        builtInSubstitutions.put("$", "$");
+        builtInSubstitutions.put("dark_red", "\u00A74");
+        builtInSubstitutions.put("red", "\u00A7c");
+        builtInSubstitutions.put("gold", "\u00A76");
+        builtInSubstitutions.put("yellow", "\u00A7e");
+        builtInSubstitutions.put("dark_green", "\u00A72");
+        builtInSubstitutions.put("green", "\u00A7a");
+        builtInSubstitutions.put("aqua", "\u00A7b");
+        builtInSubstitutions.put("dark_aqua", "\u00A73");
+        builtInSubstitutions.put("dark_blue", "\u00A71");
+        builtInSubstitutions.put("blue", "\u00A79");
+        builtInSubstitutions.put("light_purple", "\u00A7d");
+        builtInSubstitutions.put("dark_purple", "\u00A75");
+        builtInSubstitutions.put("white", "\u00A7f");
+        builtInSubstitutions.put("gray", "\u00A77");
+        builtInSubstitutions.put("dark_gray", "\u00A78");
+        builtInSubstitutions.put("black", "\u00A70");
+        builtInSubstitutions.put("reset", "\u00A7r");
+        builtInSubstitutions.put("bold", "\u00A7l");
+        builtInSubstitutions.put("italic", "\u00A7o");
+        builtInSubstitutions.put("underline", "\u00A7n");
+        builtInSubstitutions.put("strike", "\u00A7m");
+        builtInSubstitutions.put("obfuscate", "\u00A7k");
+    }
+    // endregion
+
+    private static volatile GlobalSubstitutions current = new GlobalSubstitutions(builtInSubstitutions);
+
+    private final Map<String, String> substitutions;
+
+    // User keys that are known not to clash with these globals
+    private final Set<String> validatedKeys = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    private GlobalSubstitutions(@NotNull Map<String, String> substitutions) {
+        this.substitutions = Collections.unmodifiableMap(new HashMap<>(substitutions));
+    }
+
+    /**
+     * @return the current global substitutions.
+     */
+    @NotNull
+    static GlobalSubstitutions get() {
+        return current;
+    }
+
+    /**
+     * Sets or removes a global substitution, replacing the current global substitutions.
+     *
+     * @throws IllegalArgumentException if the key is invalid, or is a built-in global.
+     */
+    static synchronized void set(@NotNull String key, @Nullable String value) {
+        if (!LocaleTextTemplate.isValidKey(key)) {
+            throw new IllegalArgumentException("Invalid global substitution key: '" + key + "'");
+        }
+        if (builtInSubstitutions.containsKey(key)) {
+            throw new IllegalArgumentException("Cannot replace built-in global substitution: '" + key + "'");
+        }
+
+        Map<String, String> substitutions = new HashMap<>(current.substitutions);
+        if (value == null) {
+            substitutions.remove(key);
+        } else {
+            substitutions.put(key, value);
+        }
+
+        current = new GlobalSubstitutions(substitutions);
+    }
+
+    @Nullable
+    String getSubstitution(@NotNull String key) {
+        return substitutions.get(key);
+    }
+
+    /**
+     * Checks that a user substitution key is valid, and doesn't clash with a global key.
+     * Keys are only checked the first time they're used.
+     *
+     * @throws IllegalArgumentException if the key is invalid.
+     */
+    void validateKey(@NotNull String key) {
+        if (validatedKeys.contains(key)) {
+            return;
+        }
+
+        if (!LocaleTextTemplate.isValidKey(key)) {
+            throw new IllegalArgumentException("Invalid substitution key: '" + key + "'");
+        }
+
+        if (substitutions.containsKey(key)) {
+            throw new IllegalArgumentException("Invalid substitution key: '" + key + "' clashes with global key");
+        }
+
+        if (validatedKeys.size() < MAX_VALIDATED_KEYS) {
+            validatedKeys.add(key);
+        }
+    }
+}
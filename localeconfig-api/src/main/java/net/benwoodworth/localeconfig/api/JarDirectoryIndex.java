@@ -0,0 +1,132 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * The file entries of a jar, sorted so the files in a directory can be found without going through every entry.
+ * <p>
+ * Indexes of jars in the filesystem are built once and shared, until the jar is modified. They're held softly, since
+ * the server jar's index holds every entry name in it, and is usually only needed while locales are loading.
+ */
+final class JarDirectoryIndex {
+    private static final ConcurrentMap<Path, SoftReference<JarDirectoryIndex>> indexes = new ConcurrentHashMap<>();
+
+    // The jar's modification time and size when it was indexed, or null if it's not a file
+    private final FileTime lastModified;
+    private final long size;
+
+    private final String[] entryNames;
+
+    private JarDirectoryIndex(FileTime lastModified, long size, @NotNull String[] entryNames) {
+        this.lastModified = lastModified;
+        this.size = size;
+        this.entryNames = entryNames;
+    }
+
+    /**
+     * Gets the index of a jar in the filesystem, indexing it if it hasn't been indexed since it was last modified.
+     */
+    @NotNull
+    static JarDirectoryIndex get(@NotNull Path jarFile) throws IOException {
+        Path jarPath = jarFile.toAbsolutePath().normalize();
+        FileTime lastModified = Files.getLastModifiedTime(jarPath);
+        long size = Files.size(jarPath);
+
+        JarDirectoryIndex index = getIndex(indexes.get(jarPath));
+        if (index != null && index.isIndexOf(lastModified, size)) {
+            return index;
+        }
+
+        // Indexed while holding the map's lock for this jar, so concurrent loads don't index it more than once
+        JarDirectoryIndex[] indexed = new JarDirectoryIndex[1];
+        try {
+            indexes.compute(jarPath, (path, existingReference) -> {
+                JarDirectoryIndex existing = getIndex(existingReference);
+                if (existing != null && existing.isIndexOf(lastModified, size)) {
+                    indexed[0] = existing;
+                    return existingReference;
+                }
+
+                try (JarFile jar = new JarFile(path.toFile())) {
+                    indexed[0] = new JarDirectoryIndex(lastModified, size, getEntryNames(jar));
+                    return new SoftReference<>(indexed[0]);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        return indexed[0];
+    }
+
+    private static JarDirectoryIndex getIndex(SoftReference<JarDirectoryIndex> reference) {
+        return reference == null ? null : reference.get();
+    }
+
+    /**
+     * Indexes an open jar without caching the index, e.g. a jar nested in another jar.
+     */
+    @NotNull
+    static JarDirectoryIndex create(@NotNull JarFile jar) {
+        return new JarDirectoryIndex(null, -1, getEntryNames(jar));
+    }
+
+    @NotNull
+    private static String[] getEntryNames(@NotNull JarFile jar) {
+        List<String> entryNames = new ArrayList<>();
+
+        Enumeration<JarEntry> entries = jar.entries();
+        while (entries.hasMoreElements()) {
+            JarEntry entry = entries.nextElement();
+            if (!entry.isDirectory()) {
+                entryNames.add(entry.getName());
+            }
+        }
+
+        String[] result = entryNames.toArray(new String[0]);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private boolean isIndexOf(@NotNull FileTime lastModified, long size) {
+        return lastModified.equals(this.lastModified) && size == this.size;
+    }
+
+    /**
+     * Lists the files in a directory, including files in its subdirectories.
+     *
+     * @param directory the directory's entry name, e.g. assets/minecraft/lang
+     * @return the files' entry names, sorted.
+     */
+    @NotNull
+    List<String> list(@NotNull String directory) {
+        String prefix = directory.isEmpty() || directory.endsWith("/") ? directory : directory + "/";
+
+        // Entries in the directory are sorted together, starting where the prefix would be
+        int start = Arrays.binarySearch(entryNames, prefix);
+        if (start < 0) {
+            start = -start - 1;
+        }
+
+        int end = start;
+        while (end < entryNames.length && entryNames[end].startsWith(prefix)) {
+            end++;
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(entryNames).subList(start, end));
+    }
+}
@@ -0,0 +1,85 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Builds a JSON chat message from substituted locale text, without parsing legacy formatting codes.
+ * <p>
+ * Usage:
+ * <pre>
+ *     String json = localeText.substituteSpans(new JsonChatBuilder(), substitutions).build();
+ * </pre>
+ */
+public final class JsonChatBuilder implements TextSpanVisitor {
+    private final StringBuilder json = new StringBuilder("{\"text\":\"\",\"extra\":[");
+    private boolean empty = true;
+
+    @Override
+    public void visitSpan(@NotNull String text, @NotNull TextStyle style) {
+        if (!empty) {
+            json.append(',');
+        }
+        empty = false;
+
+        json.append("{\"text\":");
+        appendString(text);
+
+        String color = style.getColor();
+        if (color != null) {
+            json.append(",\"color\":\"").append(color).append('"');
+        }
+
+        if (style.isBold()) json.append(",\"bold\":true");
+        if (style.isItalic()) json.append(",\"italic\":true");
+        if (style.isUnderlined()) json.append(",\"underlined\":true");
+        if (style.isStrikethrough()) json.append(",\"strikethrough\":true");
+        if (style.isObfuscated()) json.append(",\"obfuscated\":true");
+
+        json.append('}');
+    }
+
+    private void appendString(@NotNull String text) {
+        json.append('"');
+
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            switch (ch) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (ch < 0x20) {
+                        json.append(String.format("\\u%04x", (int) ch));
+                    } else {
+                        json.append(ch);
+                    }
+            }
+        }
+
+        json.append('"');
+    }
+
+    /**
+     * @return the JSON chat message built so far.
+     */
+    @NotNull
+    public String build() {
+        if (empty) {
+            return "{\"text\":\"\"}";
+        }
+
+        return json + "]}";
+    }
+}
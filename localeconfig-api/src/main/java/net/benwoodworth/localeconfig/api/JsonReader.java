@@ -3,193 +3,200 @@ package net.benwoodworth.localeconfig.api;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
 import java.text.ParseException;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Reads locale json, which is an object containing only string and null values.
+ * <p>
+ * The json is parsed from a char array with an index, and strings without escapes are copied straight out of it.
+ */
 class JsonReader {
-    private JsonReader() {
+    private final char[] json;
+    private final int start;
+    private final int end;
+    private int index;
+
+    private JsonReader(@NotNull char[] json, int start, int end) {
+        this.json = json;
+        this.start = start;
+        this.end = end;
+        this.index = start;
     }
 
-    public static Map<String, String> readLocaleJson(BufferedReader reader) throws IOException, ParseException {
-        return readLocaleElement(reader);
+    public static Map<String, String> readLocaleJson(@NotNull Reader reader) throws IOException, ParseException {
+        StringBuilder json = new StringBuilder();
+
+        char[] buffer = new char[8192];
+        int charsRead;
+        while ((charsRead = reader.read(buffer)) != -1) {
+            json.append(buffer, 0, charsRead);
+        }
+
+        return readLocaleJson(json);
     }
 
-    private static void readWs(BufferedReader reader) throws IOException {
-        while (true) {
-            reader.mark(1);
+    public static Map<String, String> readLocaleJson(@NotNull CharSequence json) throws ParseException {
+        if (json instanceof CharBuffer && ((CharBuffer) json).hasArray()) {
+            // Parse the buffer's chars without copying them
+            CharBuffer buffer = (CharBuffer) json;
+            int start = buffer.arrayOffset() + buffer.position();
+            return new JsonReader(buffer.array(), start, start + buffer.remaining()).readLocaleElement();
+        }
 
-            switch (reader.read()) {
-                case -1:
-                    return;
+        char[] chars = json.toString().toCharArray();
+        return new JsonReader(chars, 0, chars.length).readLocaleElement();
+    }
+
+    private int peek() {
+        return index < end ? json[index] : -1;
+    }
+
+    private int read() {
+        return index < end ? json[index++] : -1;
+    }
 
+    private void readWs() {
+        while (index < end) {
+            switch (json[index]) {
                 case 0x0020:
                 case 0x000A:
                 case 0x000D:
                 case 0x0009:
+                    index++;
                     break;
 
                 default:
-                    reader.reset();
                     return;
             }
         }
     }
 
-    private static Map<@NotNull String, @Nullable String> readLocaleElement(BufferedReader reader) throws IOException, ParseException {
-        readWs(reader);
-        Map<String, String> result = readLocaleObject(reader);
-        readWs(reader);
+    private Map<@NotNull String, @Nullable String> readLocaleElement() throws ParseException {
+        readWs();
+        Map<String, String> result = readLocaleObject();
+        readWs();
 
-        int ch = reader.read();
+        int ch = read();
         if (ch != -1) {
-            throw new ParseException("Expecting EOF, but found '" + (char) ch + "'", 0);
+            throw parseException("Expecting EOF, but found " + describe(ch), index - 1);
         }
         return result;
     }
 
-    private static Map<@NotNull String, @Nullable String> readLocaleObject(BufferedReader reader) throws IOException, ParseException {
-        int ch = reader.read();
+    private Map<@NotNull String, @Nullable String> readLocaleObject() throws ParseException {
+        int ch = read();
         if (ch != '{') {
-            throw new ParseException("Expecting object, but found '" + (char) ch + "'", 0);
+            throw parseException("Expecting object, but found " + describe(ch), index - 1);
         }
 
         Map<String, String> result = new HashMap<>();
 
-        readWs(reader);
+        readWs();
 
-        reader.mark(1);
-        ch = reader.read();
-        if (ch == '}') {
+        if (peek() == '}') {
+            index++;
             return result;
         } else {
-            reader.reset();
-            readLocaleMember(reader, result);
+            readLocaleMember(result);
         }
 
         while (true) {
-            readWs(reader);
+            readWs();
 
-            reader.mark(1);
-            ch = reader.read();
+            ch = read();
             switch (ch) {
                 case ',':
-                    readLocaleMember(reader, result);
+                    readLocaleMember(result);
                     break;
 
                 case '}':
                     return result;
 
-                case -1:
-                    throw new ParseException("Expecting ',' or '}', but found EOF", 0);
-
                 default:
-                    throw new ParseException("Expecting ',' or '}', but found '" + (char) ch + "'", 0);
+                    throw parseException("Expecting ',' or '}', but found " + describe(ch), index - 1);
             }
         }
     }
 
-    private static void readLocaleMember(BufferedReader reader, Map<String, String> toMap) throws IOException, ParseException {
-        readWs(reader);
-        String key = readString(reader);
-        readWs(reader);
+    private void readLocaleMember(@NotNull Map<String, String> toMap) throws ParseException {
+        readWs();
+        String key = readString();
+        readWs();
 
-        int ch = reader.read();
+        int ch = read();
         if (ch != ':') {
-            throw new ParseException("Expecting colon, but found '" + (char) ch + "'", 0);
+            throw parseException("Expecting colon, but found " + describe(ch), index - 1);
         }
 
-        readWs(reader);
-        String value = readLocaleValue(reader);
-        readWs(reader);
+        readWs();
+        String value = readLocaleValue();
+        readWs();
 
         toMap.put(key, value);
     }
 
-    private static String readLocaleValue(BufferedReader reader) throws IOException, ParseException {
-        reader.mark(4);
-
-        char[] chars = new char[4];
-        int charsRead = reader.read(chars);
-
-        if (charsRead == 0) {
-            throw new ParseException("Expected string or null, but found EOF", 0);
-        }
-
-        if (charsRead == 4 &&
-                chars[0] == 'n' &&
-                chars[1] == 'u' &&
-                chars[2] == 'l' &&
-                chars[3] == 'l'
+    @Nullable
+    private String readLocaleValue() throws ParseException {
+        if (end - index >= 4 &&
+                json[index] == 'n' &&
+                json[index + 1] == 'u' &&
+                json[index + 2] == 'l' &&
+                json[index + 3] == 'l'
         ) {
+            index += 4;
             return null;
         }
 
-        if (charsRead >= 1 && chars[0] == '"') {
-            reader.reset();
-            return readString(reader);
+        if (peek() == '"') {
+            return readString();
         }
 
-        throw new ParseException("Expected string or null, but found '" + chars[0] + "'", 0);
+        throw parseException("Expected string or null, but found " + describe(peek()), index);
     }
 
-    private static String readString(BufferedReader reader) throws IOException, ParseException {
-        int ch = reader.read();
+    @NotNull
+    private String readString() throws ParseException {
+        int ch = read();
         if (ch != '"') {
-            throw new ParseException("Expecting open quotes, but found '" + (char) ch + "'", 0);
+            throw parseException("Expecting open quotes, but found " + describe(ch), index - 1);
         }
 
-        String result = readCharacters(reader);
-
-        ch = reader.read();
-        if (ch != '"') {
-            throw new ParseException("Expecting close quotes, but found '" + (char) ch + "'", 0);
+        // Strings without escapes are copied straight from the json
+        int stringStart = index;
+        while (index < end) {
+            char c = json[index];
+            if (c == '"') {
+                return new String(json, stringStart, index++ - stringStart);
+            } else if (c == '\\' || c < 0x20) {
+                break;
+            }
+            index++;
         }
 
-        return result;
-    }
-
-    private static String readCharacters(BufferedReader reader) throws IOException, ParseException {
-        StringBuilder sb = new StringBuilder();
+        StringBuilder result = new StringBuilder(index - stringStart + 16);
+        result.append(json, stringStart, index - stringStart);
 
         while (true) {
-            int ch = readCharacter(reader);
-            if (ch == -1) {
-                break;
+            ch = read();
+            if (ch == '"') {
+                return result.toString();
+            } else if (ch == '\\') {
+                result.append(readEscape());
+            } else if (ch >= 0x20) {
+                result.append((char) ch);
             } else {
-                sb.append((char) ch);
+                throw parseException("Expecting close quotes, but found " + describe(ch), ch == -1 ? index : index - 1);
             }
         }
-
-        return sb.toString();
     }
 
-    private static int readCharacter(BufferedReader reader) throws IOException, ParseException {
-        reader.mark(1);
-
-        int ch = reader.read();
-        switch (ch) {
-            case '"':
-                reader.reset();
-                return -1;
-
-            case '\\':
-                return readEscape(reader);
-
-            default:
-                if (0x20 <= ch && ch <= 0x10FFFF) {
-                    return (char) ch;
-                } else {
-                    reader.reset();
-                    return -1;
-                }
-        }
-    }
-
-    private static int readEscape(BufferedReader reader) throws IOException, ParseException {
-        int ch = reader.read();
+    private char readEscape() throws ParseException {
+        int ch = read();
         switch (ch) {
             case '"':
                 return '\"';
@@ -208,19 +215,19 @@ class JsonReader {
             case 't':
                 return '\t';
             case 'u':
-                return (readHex(reader) << 12) +
-                        (readHex(reader) << 8) +
-                        (readHex(reader) << 4) +
-                        readHex(reader);
+                return (char) ((readHex() << 12) +
+                        (readHex() << 8) +
+                        (readHex() << 4) +
+                        readHex());
             case -1:
-                throw new ParseException("Expecting escape character but found EOF", 0);
+                throw parseException("Expecting escape character but found EOF", index);
             default:
-                throw new ParseException("Invalid escape sequence: \\" + (char) ch, 0);
+                throw parseException("Invalid escape sequence: \\" + (char) ch, index - 1);
         }
     }
 
-    private static int readHex(BufferedReader reader) throws IOException, ParseException {
-        int ch = reader.read();
+    private int readHex() throws ParseException {
+        int ch = read();
 
         if ('0' <= ch && ch <= '9') {
             return ch - '0';
@@ -229,9 +236,33 @@ class JsonReader {
         } else if ('A' <= ch && ch <= 'F') {
             return ch - 'A' + 0xA;
         } else if (ch == -1) {
-            throw new ParseException("Expecting hex character, but found EOF", 0);
+            throw parseException("Expecting hex character, but found EOF", index);
         } else {
-            throw new ParseException("Invalid hex character: " + (char) ch, 0);
+            throw parseException("Invalid hex character: " + (char) ch, index - 1);
+        }
+    }
+
+    @NotNull
+    private static String describe(int ch) {
+        return ch == -1 ? "EOF" : "'" + (char) ch + "'";
+    }
+
+    /**
+     * Creates an exception for an error at an index in the json, with the line and column in the message.
+     */
+    @NotNull
+    private ParseException parseException(@NotNull String message, int errorIndex) {
+        int line = 1;
+        int lineStart = start;
+        for (int i = start; i < errorIndex; i++) {
+            char ch = json[i];
+            if (ch == '\n' || (ch == '\r' && (i + 1 >= end || json[i + 1] != '\n'))) {
+                line++;
+                lineStart = i + 1;
+            }
         }
+
+        int column = errorIndex - lineStart + 1;
+        return new ParseException(message + " at line " + line + ", column " + column, errorIndex - start);
     }
 }
@@ -3,20 +3,39 @@ package net.benwoodworth.localeconfig.api;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.net.URL;
-import java.util.HashMap;
-import java.util.Locale;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class LocaleApi {
     // Replacing ! with . prevents package relocation smartly changing this package String
     private static final String PACKAGE = "net!benwoodworth!localeconfig!api".replace('!', '.');
 
-    private static LocaleTextProvider localeTextProvider = null;
+    private static final LocaleTextProviderRegistry registry = new LocaleTextProviderRegistry();
 
-    private static boolean canGetSpongePlayerLocale = true;
-    private static boolean canGetBukkitPlayerLocale = true;
-    private static boolean canGetBungeePlayerLocale = true;
+    private static final PlayerLocaleCache playerLocaleCache = new PlayerLocaleCache();
+
+    // The watcher reloading each namespace's locales, which is stopped when the namespace is loaded again
+    private static final ConcurrentMap<String, LocaleDirectoryWatcher> watchers = new ConcurrentHashMap<>();
+
+    private static volatile boolean canGetSpongePlayerLocale = true;
+    private static volatile boolean canGetBukkitPlayerLocale = true;
+    private static volatile boolean canGetBungeePlayerLocale = true;
+
+    // Null if locales aren't validated
+    @Nullable
+    private static volatile Executor validationExecutor = ForkJoinPool.commonPool();
 
     private LocaleApi() {
     }
@@ -29,17 +48,12 @@ public class LocaleApi {
         System.err.println("[LocaleConfig] " + namespace + ": " + message);
     }
 
-    @NotNull
-    private static LocaleTextProvider getLocaleTextProvider() {
-        if (localeTextProvider == null) {
-            throw new IllegalStateException("Locales have not been loaded. Must call LocaleApi.loadLocales() first.");
-        }
-
-        return localeTextProvider;
-    }
-
     /**
      * Load locales from the specified resource directory.
+     * <p>
+     * Locales can be loaded for any number of namespaces. The most recently loaded namespace is used for
+     * locale text keys that don't specify a namespace. Vanilla Minecraft locales are available in the
+     * "minecraft" namespace.
      *
      * <ul>
      *     <li>Locale files should be named *.json, e.g. en.json, en-US.json, etc.</li>
@@ -49,33 +63,369 @@ public class LocaleApi {
      *     <li>All locale files should contain the same locale keys.</li>
      * </ul>
      *
+     * <p>
+     * If the locale files were compiled into a bundle with {@link LocaleBundleCompiler}, e.g. /locales.lcbundle,
+     * the bundle is loaded instead of parsing the json files.
+     *
      * @param namespace         The namespace for the locale keys. Must not contain a colon.
      * @param localeResourceDir The resource directory containing locale json files. e.g. /locales
      */
     public static void load(@NotNull String namespace, @NotNull String localeResourceDir) {
-        if (LocaleApi.class.getPackage().getName().equals(PACKAGE)) {
-            logErr(namespace, "The package " + PACKAGE + " should be relocated to avoid conflicts");
+        load(namespace, localeResourceDir, Collections.emptyMap());
+    }
+
+    /**
+     * Load locales from the specified resource directory, with custom fallback chains.
+     * <p>
+     * Locales with a fallback chain fall back to the locales in the chain, in order, then English,
+     * instead of to a broader locale. e.g. pt-BR &rarr; pt-PT &rarr; es &rarr; en
+     * <p>
+     * Fallbacks are resolved once while loading, so looking up locale text never searches multiple locales.
+     *
+     * @param namespace         The namespace for the locale keys. Must not contain a colon.
+     * @param localeResourceDir The resource directory containing locale json files. e.g. /locales
+     * @param fallbackChains    The locales to fall back to for each locale, excluding English.
+     * @see #load(String, String)
+     */
+    public static void load(
+            @NotNull String namespace,
+            @NotNull String localeResourceDir,
+            @NotNull Map<@NotNull Locale, @NotNull List<@NotNull Locale>> fallbackChains
+    ) {
+        // Run on the calling thread
+        load(namespace, localeResourceDir, fallbackChains, Runnable::run);
+    }
+
+    /**
+     * Load locales from the specified resource directory, parsing the locale files concurrently.
+     * <p>
+     * This method still returns once the locales are loaded, but the locale files are read and parsed on the
+     * executor, e.g. {@link java.util.concurrent.ForkJoinPool#commonPool()}. Errors are reported in the same order
+     * as when loading on one thread.
+     *
+     * @param namespace         The namespace for the locale keys. Must not contain a colon.
+     * @param localeResourceDir The resource directory containing locale json files. e.g. /locales
+     * @param executor          The executor to parse locale files on.
+     * @see #load(String, String)
+     */
+    public static void load(
+            @NotNull String namespace,
+            @NotNull String localeResourceDir,
+            @NotNull Executor executor
+    ) {
+        load(namespace, localeResourceDir, Collections.emptyMap(), executor);
+    }
+
+    /**
+     * Load locales from the specified resource directory with custom fallback chains, parsing the locale files
+     * concurrently.
+     *
+     * @see #load(String, String, Map)
+     * @see #load(String, String, Executor)
+     */
+    public static void load(
+            @NotNull String namespace,
+            @NotNull String localeResourceDir,
+            @NotNull Map<@NotNull Locale, @NotNull List<@NotNull Locale>> fallbackChains,
+            @NotNull Executor executor
+    ) {
+        checkNamespace(namespace);
+        stopWatching(namespace);
+
+        Map<LocaleKey, List<LocaleKey>> fallbackChainKeys = getFallbackChainKeys(fallbackChains);
+        LocaleTextProvider provider = null;
+
+        // Load the compiled bundle if there is one, and parse the json files otherwise
+        String bundleResource = LocaleBundleCompiler.getBundleFileName(localeResourceDir.replaceAll("/+$", ""));
+        URL bundleUrl = LocaleApi.class.getResource(bundleResource);
+        if (bundleUrl != null) {
+            try {
+                ByteBuffer bundle = LocaleFileLoader.readLocaleBundle(bundleUrl);
+                provider = LocaleBundle.createProvider(namespace, bundle, fallbackChainKeys, getValidationExecutor());
+            } catch (Exception e) {
+                new Exception("Error loading " + bundleResource + ", so loading json instead: " + e.getMessage(), e)
+                        .printStackTrace();
+            }
         }
 
-        if (namespace.contains(":")) {
-            throw new IllegalArgumentException("Namespace must not contain a colon.");
+        if (provider == null) {
+            URL localeResourceDirUrl = LocaleApi.class.getResource(localeResourceDir);
+            if (localeResourceDirUrl == null) {
+                throw new RuntimeException("Could not find locale resource directory '" + localeResourceDir + "'");
+            }
+
+            Map<LocaleKey, Map<String, String>> locales;
+            try {
+                locales = LocaleFileLoader.loadLocaleFiles(namespace, localeResourceDirUrl, executor);
+            } catch (Exception e) {
+                e.printStackTrace();
+                locales = new HashMap<>();
+            }
+
+            provider = LocaleTextProvider.create(namespace, locales, fallbackChainKeys);
         }
 
+        registry.register(provider, true);
+    }
+
+    /**
+     * Load locales from the specified directory, e.g. a folder in the plugin's data folder that admins can edit.
+     * <p>
+     * Large locale files are memory-mapped and parsed straight from the mapped file.
+     *
+     * @param namespace The namespace for the locale keys. Must not contain a colon.
+     * @param localeDir The directory containing locale json files.
+     * @see #load(String, String)
+     * @see #watch(String, Path)
+     */
+    public static void load(@NotNull String namespace, @NotNull Path localeDir) {
+        // Run on the calling thread
+        load(namespace, localeDir, Collections.emptyMap(), Runnable::run);
+    }
+
+    /**
+     * Load locales from the specified directory with custom fallback chains, parsing the locale files
+     * concurrently.
+     *
+     * @see #load(String, Path)
+     * @see #load(String, String, Map, Executor)
+     */
+    public static void load(
+            @NotNull String namespace,
+            @NotNull Path localeDir,
+            @NotNull Map<@NotNull Locale, @NotNull List<@NotNull Locale>> fallbackChains,
+            @NotNull Executor executor
+    ) {
+        checkNamespace(namespace);
+        stopWatching(namespace);
+
         Map<LocaleKey, Map<String, String>> locales;
+        try {
+            locales = LocaleFileLoader.loadLocaleFiles(namespace, localeDir, executor);
+        } catch (Exception e) {
+            e.printStackTrace();
+            locales = new HashMap<>();
+        }
+
+        registry.register(LocaleTextProvider.create(namespace, locales, getFallbackChainKeys(fallbackChains)), true);
+    }
+
+    /**
+     * Load locales from the specified resource directory, parsing each locale file the first time it's needed.
+     * <p>
+     * Only English is parsed while loading. Other locales, along with the locales they fall back to, are parsed
+     * the first time locale text is looked up for them, so locales that are never used aren't parsed or kept in
+     * memory. If several threads need a locale at once, it's parsed once while the other threads wait for it.
+     * <p>
+     * Compiled bundles aren't used, since they're loaded all at once.
+     *
+     * @param namespace         The namespace for the locale keys. Must not contain a colon.
+     * @param localeResourceDir The resource directory containing locale json files. e.g. /locales
+     * @see #load(String, String)
+     */
+    public static void loadLazily(@NotNull String namespace, @NotNull String localeResourceDir) {
+        loadLazily(namespace, localeResourceDir, Collections.emptyMap());
+    }
+
+    /**
+     * Load locales from the specified resource directory with custom fallback chains, parsing each locale file
+     * the first time it's needed.
+     *
+     * @see #loadLazily(String, String)
+     * @see #load(String, String, Map)
+     */
+    public static void loadLazily(
+            @NotNull String namespace,
+            @NotNull String localeResourceDir,
+            @NotNull Map<@NotNull Locale, @NotNull List<@NotNull Locale>> fallbackChains
+    ) {
+        checkNamespace(namespace);
+        stopWatching(namespace);
 
         URL localeResourceDirUrl = LocaleApi.class.getResource(localeResourceDir);
         if (localeResourceDirUrl == null) {
             throw new RuntimeException("Could not find locale resource directory '" + localeResourceDir + "'");
         }
 
+        Map<LocaleKey, Supplier<Map<String, String>>> localeFiles;
         try {
-            locales = LocaleFileLoader.loadLocaleFiles(namespace, localeResourceDirUrl);
+            localeFiles = LocaleFileLoader.indexLocaleFiles(namespace, localeResourceDirUrl);
         } catch (Exception e) {
             e.printStackTrace();
-            locales = new HashMap<>();
+            localeFiles = new HashMap<>();
+        }
+
+        registry.register(LocaleTextProvider.createLazy(
+                namespace, localeFiles, getFallbackChainKeys(fallbackChains), validationExecutor), true);
+    }
+
+    /**
+     * Load locales from the specified directory with custom fallback chains, parsing each locale file the first
+     * time it's needed.
+     *
+     * @see #loadLazily(String, String)
+     * @see #load(String, Path)
+     */
+    public static void loadLazily(
+            @NotNull String namespace,
+            @NotNull Path localeDir,
+            @NotNull Map<@NotNull Locale, @NotNull List<@NotNull Locale>> fallbackChains
+    ) {
+        checkNamespace(namespace);
+        stopWatching(namespace);
+
+        Map<LocaleKey, Supplier<Map<String, String>>> localeFiles;
+        try {
+            localeFiles = LocaleFileLoader.indexLocaleFiles(namespace, localeDir);
+        } catch (Exception e) {
+            e.printStackTrace();
+            localeFiles = new HashMap<>();
         }
 
-        localeTextProvider = LocaleTextProvider.create(namespace, locales);
+        registry.register(LocaleTextProvider.createLazy(
+                namespace, localeFiles, getFallbackChainKeys(fallbackChains), validationExecutor), true);
+    }
+
+    /**
+     * Load locales from the specified directory, and reload them whenever the locale files change.
+     * <p>
+     * Only locale files whose contents changed are parsed again. Reloaded locales replace the previous ones
+     * all at once, so locale text being looked up on other threads is never partially reloaded.
+     *
+     * @param namespace The namespace for the locale keys. Must not contain a colon.
+     * @param localeDir The directory containing locale json files.
+     * @return a watcher that stops reloading the locales when closed.
+     * @throws IOException if the directory cannot be watched.
+     * @see #load(String, String)
+     */
+    @NotNull
+    public static Closeable watch(@NotNull String namespace, @NotNull Path localeDir) throws IOException {
+        return watch(namespace, localeDir, Collections.emptyMap());
+    }
+
+    /**
+     * Load locales from the specified directory, with custom fallback chains, and reload them whenever the
+     * locale files change.
+     *
+     * @see #watch(String, Path)
+     * @see #load(String, String, Map)
+     */
+    @NotNull
+    public static Closeable watch(
+            @NotNull String namespace,
+            @NotNull Path localeDir,
+            @NotNull Map<@NotNull Locale, @NotNull List<@NotNull Locale>> fallbackChains
+    ) throws IOException {
+        checkNamespace(namespace);
+        stopWatching(namespace);
+
+        LocaleDirectoryWatcher watcher =
+                LocaleDirectoryWatcher.start(namespace, localeDir, getFallbackChainKeys(fallbackChains), registry);
+        watchers.put(namespace, watcher);
+        return watcher;
+    }
+
+    /**
+     * Set a global substitution, which will be substituted in all locale text. e.g. a server name or brand color.
+     * <p>
+     * Globals are substituted when locale text is first used, not each time it's substituted, so they should be
+     * set while loading, before locale text is used. Substitution keys must not clash with global keys.
+     *
+     * @param key   The global key, e.g. <code>server</code> for <code>$server</code>.
+     * @param value The value to substitute, or null to remove the global substitution.
+     * @throws IllegalArgumentException if the key is invalid, or is a built-in global like <code>red</code>.
+     * @see LocaleText#substitute(Map)
+     */
+    public static void setGlobalSubstitution(@NotNull String key, @Nullable String value) {
+        GlobalSubstitutions.set(key, value);
+    }
+
+    /**
+     * Gets a summary of the memory used by a namespace's locales, including the estimated bytes saved by sharing
+     * locale text that's the same in several locales, e.g. en-GB and en.
+     *
+     * @param namespace The namespace of the locales, e.g. "minecraft" for vanilla locales.
+     * @return the memory report, or null if the namespace hasn't been loaded.
+     */
+    @Nullable
+    public static LocaleMemoryReport getMemoryReport(@NotNull String namespace) {
+        LocaleTextProvider provider = registry.getProvider(namespace);
+        return provider == null ? null : provider.getMemoryReport();
+    }
+
+    /**
+     * Set the executor that locales are validated on when they're loaded, or null to not validate locales.
+     * <p>
+     * Locales are validated against English in the background, so loading doesn't wait for it. A line is logged for
+     * each locale with problems, and the full results are available with {@link #getValidationReport(String)}.
+     * By default, locales are validated on {@link ForkJoinPool#commonPool()}.
+     *
+     * @param executor The executor to validate locales on, or null to not validate locales.
+     */
+    public static void setValidationExecutor(@Nullable Executor executor) {
+        validationExecutor = executor;
+    }
+
+    @Nullable
+    static Executor getValidationExecutor() {
+        return validationExecutor;
+    }
+
+    /**
+     * Gets the results of validating a namespace's locales against English: missing, extra and null keys, and
+     * texts whose placeholders don't match English.
+     * <p>
+     * Locales loaded with {@link #loadLazily(String, String)} are validated as they're loaded, so the report only
+     * includes the locales that have been loaded so far.
+     *
+     * @param namespace The namespace of the locales.
+     * @return the validation report, once the locales have been validated, or null if the namespace hasn't been
+     * loaded or its locales weren't validated.
+     * @see #setValidationExecutor(Executor)
+     */
+    @Nullable
+    public static CompletableFuture<ValidationReport> getValidationReport(@NotNull String namespace) {
+        LocaleTextProvider provider = registry.getProvider(namespace);
+        return provider == null ? null : provider.getValidationReport();
+    }
+
+    private static void checkNamespace(@NotNull String namespace) {
+        if (LocaleApi.class.getPackage().getName().equals(PACKAGE)) {
+            logErr(namespace, "The package " + PACKAGE + " should be relocated to avoid conflicts");
+        }
+
+        if (namespace.contains(":")) {
+            throw new IllegalArgumentException("Namespace must not contain a colon.");
+        }
+    }
+
+    /**
+     * Stops reloading a namespace's locales from a watched directory, since they're being loaded again.
+     */
+    private static void stopWatching(@NotNull String namespace) {
+        LocaleDirectoryWatcher watcher = watchers.remove(namespace);
+        if (watcher != null) {
+            try {
+                watcher.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    @NotNull
+    private static Map<LocaleKey, List<LocaleKey>> getFallbackChainKeys(@NotNull Map<Locale, List<Locale>> fallbackChains) {
+        Map<LocaleKey, List<LocaleKey>> fallbackChainKeys = new HashMap<>();
+        for (Map.Entry<Locale, List<Locale>> fallbackChain : fallbackChains.entrySet()) {
+            List<LocaleKey> fallbackKeys = new ArrayList<>();
+            for (Locale fallbackLocale : fallbackChain.getValue()) {
+                fallbackKeys.add(LocaleKey.get(fallbackLocale));
+            }
+
+            fallbackChainKeys.put(LocaleKey.get(fallbackChain.getKey()), fallbackKeys);
+        }
+
+        return fallbackChainKeys;
     }
 
     /**
@@ -83,7 +433,7 @@ public class LocaleApi {
      * <p>
      * The locale text key can specify a namespace with "namespace:locale.text.key".
      * <p>
-     * If no namespace is specified, the namespace that was used in {@link #load(String, String)} will be used.
+     * If no namespace is specified, the namespace most recently loaded with {@link #load(String, String)} will be used.
      *
      * @param locale        the locale of the text to get, or null for server default.
      * @param localeTextKey the key of the locale text to get.
@@ -91,7 +441,7 @@ public class LocaleApi {
      */
     @Nullable
     public static LocaleText get(@Nullable Locale locale, @NotNull String localeTextKey) {
-        return getLocaleTextProvider().getText(locale, localeTextKey);
+        return registry.getText(locale, localeTextKey);
     }
 
     /**
@@ -111,7 +461,7 @@ public class LocaleApi {
      */
     @Nullable
     public static LocaleText get(@NotNull org.spongepowered.api.entity.living.player.Player player, @NotNull String localeTextKey) {
-        return get(getLocale(player), localeTextKey);
+        return registry.getText(getPlayerLocale(player), localeTextKey);
     }
 
     /**
@@ -121,7 +471,7 @@ public class LocaleApi {
      */
     @Nullable
     public static LocaleText get(@NotNull org.bukkit.entity.Player player, @NotNull String localeTextKey) {
-        return get(getLocale(player), localeTextKey);
+        return registry.getText(getLocaleKey(getPlayerLocale(player)), localeTextKey);
     }
 
     /**
@@ -131,7 +481,183 @@ public class LocaleApi {
      */
     @Nullable
     public static LocaleText get(@NotNull net.md_5.bungee.api.connection.ProxiedPlayer player, @NotNull String localeTextKey) {
-        return get(getLocale(player), localeTextKey);
+        return registry.getText(getPlayerLocale(player), localeTextKey);
+    }
+
+    /**
+     * Parses a locale text key, e.g. "namespace:locale.text.key".
+     * <p>
+     * The key can be stored and reused, so looking up locale text with it doesn't need to parse and hash the key.
+     * If no namespace is specified, the namespace most recently loaded with {@link #load(String, String)} will be used.
+     *
+     * @param localeTextKey the key of the locale text.
+     * @return the parsed locale text key.
+     * @see #get(Locale, LocaleTextKey)
+     */
+    @NotNull
+    public static LocaleTextKey key(@NotNull String localeTextKey) {
+        return LocaleTextKey.parse(localeTextKey);
+    }
+
+    /**
+     * Gets LocaleText for the specified locale and localeTextKey.
+     *
+     * @param locale        the locale of the text to get, or null for server default.
+     * @param localeTextKey the key of the locale text to get.
+     * @return locale text
+     * @see #key(String)
+     */
+    @Nullable
+    public static LocaleText get(@Nullable Locale locale, @NotNull LocaleTextKey localeTextKey) {
+        return registry.getText(locale, localeTextKey);
+    }
+
+    /**
+     * Gets LocaleText using the default locale.
+     *
+     * @see #get(Locale, LocaleTextKey)
+     */
+    @Nullable
+    public static LocaleText get(@NotNull LocaleTextKey localeTextKey) {
+        return get((Locale) null, localeTextKey);
+    }
+
+    /**
+     * Gets LocaleText for the specified player's locale and localeTextKey.
+     *
+     * @see #get(Locale, LocaleTextKey)
+     */
+    @Nullable
+    public static LocaleText get(@NotNull org.spongepowered.api.entity.living.player.Player player, @NotNull LocaleTextKey localeTextKey) {
+        return registry.getText(getPlayerLocale(player), localeTextKey);
+    }
+
+    /**
+     * Gets LocaleText for the specified player's locale and localeTextKey.
+     *
+     * @see #get(Locale, LocaleTextKey)
+     */
+    @Nullable
+    public static LocaleText get(@NotNull org.bukkit.entity.Player player, @NotNull LocaleTextKey localeTextKey) {
+        return registry.getText(getLocaleKey(getPlayerLocale(player)), localeTextKey);
+    }
+
+    /**
+     * Gets LocaleText for the specified player's locale and localeTextKey.
+     *
+     * @see #get(Locale, LocaleTextKey)
+     */
+    @Nullable
+    public static LocaleText get(@NotNull net.md_5.bungee.api.connection.ProxiedPlayer player, @NotNull LocaleTextKey localeTextKey) {
+        return registry.getText(getPlayerLocale(player), localeTextKey);
+    }
+
+    /**
+     * Sends locale text to players, substituted for each player's locale.
+     * <p>
+     * Players are grouped by locale, so the text is only substituted once for each locale, no matter how many
+     * players there are. Players whose locale has no text for the key are skipped.
+     *
+     * @param players           the players to send the text to.
+     * @param localeTextKey     the key of the locale text to send.
+     * @param substitutionPairs the placeholder/value pairs to be substituted.
+     * @see LocaleText#substitute(Object...)
+     */
+    public static void broadcast(
+            @NotNull Collection<? extends org.bukkit.entity.Player> players,
+            @NotNull String localeTextKey,
+            Object... substitutionPairs
+    ) {
+        broadcast(players, key(localeTextKey), substitutionPairs);
+    }
+
+    /**
+     * Sends locale text to players, substituted for each player's locale.
+     *
+     * @see #broadcast(Collection, String, Object...)
+     */
+    public static void broadcast(
+            @NotNull Collection<? extends org.bukkit.entity.Player> players,
+            @NotNull LocaleTextKey localeTextKey,
+            Object... substitutionPairs
+    ) {
+        Map<String, Object> substitutions = LocaleText.getSubstitutions(substitutionPairs);
+        Map<LocaleText, String> messages = new IdentityHashMap<>();
+
+        for (org.bukkit.entity.Player player : players) {
+            LocaleText localeText = registry.getText(getLocaleKey(getPlayerLocale(player)), localeTextKey);
+            String message = render(localeText, substitutions, messages);
+            if (message != null) {
+                player.sendMessage(message);
+            }
+        }
+    }
+
+    /**
+     * Sends locale text to recipients, substituted for each recipient's locale.
+     * <p>
+     * Recipients are grouped by locale, so the text is only substituted once for each locale, no matter how many
+     * recipients there are. Recipients whose locale has no text for the key are skipped.
+     *
+     * <p>
+     * Usage:
+     * <pre>
+     *     broadcast(
+     *         proxiedPlayers,
+     *         LocaleApi::getLocale,
+     *         (player, message) -&gt; player.sendMessage(TextComponent.fromLegacyText(message)),
+     *         localeTextKey,
+     *         "key1", value1,
+     *         ...
+     *     )
+     * </pre>
+     *
+     * @param recipients        the recipients to send the text to.
+     * @param getLocale         gets a recipient's locale, or null for server default.
+     * @param send              sends substituted text to a recipient.
+     * @param localeTextKey     the key of the locale text to send.
+     * @param substitutionPairs the placeholder/value pairs to be substituted.
+     * @see LocaleText#substitute(Object...)
+     */
+    public static <R> void broadcast(
+            @NotNull Collection<? extends R> recipients,
+            @NotNull Function<? super R, @Nullable Locale> getLocale,
+            @NotNull BiConsumer<? super R, @NotNull String> send,
+            @NotNull LocaleTextKey localeTextKey,
+            Object... substitutionPairs
+    ) {
+        Map<String, Object> substitutions = LocaleText.getSubstitutions(substitutionPairs);
+        Map<LocaleText, String> messages = new IdentityHashMap<>();
+
+        for (R recipient : recipients) {
+            LocaleText localeText = registry.getText(getLocale.apply(recipient), localeTextKey);
+            String message = render(localeText, substitutions, messages);
+            if (message != null) {
+                send.accept(recipient, message);
+            }
+        }
+    }
+
+    /**
+     * Substitutes locale text, reusing the result if the same locale text was already substituted.
+     */
+    @Nullable
+    private static String render(
+            @Nullable LocaleText localeText,
+            @NotNull Map<String, Object> substitutions,
+            @NotNull Map<LocaleText, String> messages
+    ) {
+        if (localeText == null) {
+            return null;
+        }
+
+        String message = messages.get(localeText);
+        if (message == null) {
+            message = localeText.substitute(substitutions);
+            messages.put(localeText, message);
+        }
+
+        return message;
     }
 
     /**
@@ -142,6 +668,62 @@ public class LocaleApi {
      */
     @Nullable
     public static Locale getLocale(@NotNull org.spongepowered.api.entity.living.player.Player player) {
+        return getPlayerLocale(player);
+    }
+
+    /**
+     * Gets the specified player's locale.
+     *
+     * @return the player's locale, or null if unable to get it.
+     * @see #get(Locale, String)
+     */
+    @Nullable
+    public static Locale getLocale(@NotNull org.bukkit.entity.Player player) {
+        PlayerLocaleCache.PlayerLocale playerLocale = getPlayerLocale(player);
+        return playerLocale == null ? null : playerLocale.locale;
+    }
+
+    /**
+     * Gets the specified player's locale.
+     *
+     * @return the player's locale, or null if unable to get it.
+     * @see #get(Locale, String)
+     */
+    @Nullable
+    public static Locale getLocale(@NotNull net.md_5.bungee.api.connection.ProxiedPlayer player) {
+        return getPlayerLocale(player);
+    }
+
+    /**
+     * Forgets the cached locale of the specified Bukkit player.
+     * <p>
+     * Bukkit players' locales are parsed and cached, and should be invalidated when players disconnect.
+     * This is done automatically after calling {@link #registerListeners(org.bukkit.plugin.Plugin)}.
+     *
+     * @param playerId the player's UUID.
+     */
+    public static void invalidateLocale(@NotNull UUID playerId) {
+        playerLocaleCache.invalidate(playerId);
+    }
+
+    /**
+     * Registers listeners that invalidate players' cached locales when they change their locale or quit.
+     *
+     * @param plugin the plugin to register the listeners with.
+     * @see #invalidateLocale(UUID)
+     */
+    public static void registerListeners(@NotNull org.bukkit.plugin.Plugin plugin) {
+        plugin.getServer().getPluginManager().registerEvents(new PlayerLocaleCache.BukkitListener(playerLocaleCache), plugin);
+    }
+
+    @NotNull
+    private static LocaleKey getLocaleKey(@Nullable PlayerLocaleCache.PlayerLocale playerLocale) {
+        return playerLocale == null ? LocaleKey.DEFAULT : playerLocale.localeKey;
+    }
+
+    // Already parsed by the platform, so there's nothing to cache
+    @Nullable
+    private static Locale getPlayerLocale(@NotNull org.spongepowered.api.entity.living.player.Player player) {
         if (!canGetSpongePlayerLocale) {
             return null;
         }
@@ -154,14 +736,8 @@ public class LocaleApi {
         }
     }
 
-    /**
-     * Gets the specified player's locale.
-     *
-     * @return the player's locale, or null if unable to get it.
-     * @see #get(Locale, String)
-     */
     @Nullable
-    public static Locale getLocale(@NotNull org.bukkit.entity.Player player) {
+    private static PlayerLocaleCache.PlayerLocale getPlayerLocale(@NotNull org.bukkit.entity.Player player) {
         if (!canGetBukkitPlayerLocale) {
             return null;
         }
@@ -178,21 +754,26 @@ public class LocaleApi {
             return null;
         }
 
-        try {
-            return Locale.forLanguageTag(localeTag.replace('_', '-'));
-        } catch (Exception e) {
-            return null;
+        UUID playerId = player.getUniqueId();
+        PlayerLocaleCache.PlayerLocale playerLocale = playerLocaleCache.get(playerId, localeTag);
+        if (playerLocale == null) {
+            Locale locale;
+            try {
+                locale = Locale.forLanguageTag(localeTag.replace('_', '-'));
+            } catch (Exception e) {
+                locale = null;
+            }
+
+            playerLocale = new PlayerLocaleCache.PlayerLocale(localeTag, locale);
+            playerLocaleCache.put(playerId, playerLocale);
         }
+
+        return playerLocale;
     }
 
-    /**
-     * Gets the specified player's locale.
-     *
-     * @return the player's locale, or null if unable to get it.
-     * @see #get(Locale, String)
-     */
+    // Already parsed by the platform, so there's nothing to cache
     @Nullable
-    public static Locale getLocale(@NotNull net.md_5.bungee.api.connection.ProxiedPlayer player) {
+    private static Locale getPlayerLocale(@NotNull net.md_5.bungee.api.connection.ProxiedPlayer player) {
         if (!canGetBungeePlayerLocale) {
             return null;
         }
@@ -0,0 +1,347 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * A binary bundle of locale files, compiled at build time so locales don't need to be parsed from json when loaded.
+ * <p>
+ * Layout, with big-endian ints:
+ * <pre>
+ *     int magic, int version
+ *     int keyCount, int localeCount, int stringCount
+ *     int[stringCount + 1] string offsets, from the start of the string pool
+ *     int[keyCount] key strings, sorted
+ *     localeCount times:
+ *         int locale tag string, e.g. en or zh-TW
+ *         int[keyCount] value strings, or MISSING or NULL
+ *     string pool, of UTF-8 strings
+ * </pre>
+ * Strings are indexes into the string pool, which contains each distinct string once.
+ */
+final class LocaleBundle {
+    /**
+     * The extension of bundles, which are next to the locale directory they're compiled from.
+     * e.g. /locales.lcbundle for /locales
+     */
+    static final String FILE_EXTENSION = ".lcbundle";
+
+    private static final int MAGIC = 0x4C434231; // "LCB1"
+    private static final int VERSION = 1;
+
+    // Value strings for keys that aren't in a locale file, or are null
+    private static final int MISSING = -1;
+    private static final int NULL = -2;
+
+    private LocaleBundle() {
+    }
+
+    /**
+     * Writes a bundle.
+     *
+     * @param locales the locale files' texts, by locale tag.
+     */
+    @NotNull
+    static byte[] write(@NotNull Map<String, Map<String, String>> locales) {
+        SortedSet<String> keySet = new TreeSet<>();
+        for (Map<String, String> localeTexts : locales.values()) {
+            keySet.addAll(localeTexts.keySet());
+        }
+        List<String> keys = new ArrayList<>(keySet);
+        List<String> localeTags = new ArrayList<>(new TreeSet<>(locales.keySet()));
+
+        Map<String, Integer> stringIndexes = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+
+        int[] keyStrings = new int[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            keyStrings[i] = getStringIndex(keys.get(i), stringIndexes, strings);
+        }
+
+        int[][] localeStrings = new int[localeTags.size()][keys.size() + 1];
+        for (int i = 0; i < localeTags.size(); i++) {
+            String localeTag = localeTags.get(i);
+            Map<String, String> localeTexts = locales.get(localeTag);
+
+            localeStrings[i][0] = getStringIndex(localeTag, stringIndexes, strings);
+            for (int j = 0; j < keys.size(); j++) {
+                String key = keys.get(j);
+                String value = localeTexts.get(key);
+
+                if (value != null) {
+                    localeStrings[i][j + 1] = getStringIndex(value, stringIndexes, strings);
+                } else if (localeTexts.containsKey(key)) {
+                    localeStrings[i][j + 1] = NULL;
+                } else {
+                    localeStrings[i][j + 1] = MISSING;
+                }
+            }
+        }
+
+        int poolSize = 0;
+        for (byte[] string : strings) {
+            poolSize += string.length;
+        }
+
+        int headerInts = 5 + (strings.size() + 1) + keys.size() + localeTags.size() * (keys.size() + 1);
+        ByteBuffer bundle = ByteBuffer.allocate(headerInts * 4 + poolSize);
+
+        bundle.putInt(MAGIC).putInt(VERSION);
+        bundle.putInt(keys.size()).putInt(localeTags.size()).putInt(strings.size());
+
+        int offset = 0;
+        for (byte[] string : strings) {
+            bundle.putInt(offset);
+            offset += string.length;
+        }
+        bundle.putInt(offset);
+
+        for (int keyString : keyStrings) {
+            bundle.putInt(keyString);
+        }
+
+        for (int[] locale : localeStrings) {
+            for (int string : locale) {
+                bundle.putInt(string);
+            }
+        }
+
+        for (byte[] string : strings) {
+            bundle.put(string);
+        }
+
+        return bundle.array();
+    }
+
+    private static int getStringIndex(
+            @NotNull String string,
+            @NotNull Map<String, Integer> stringIndexes,
+            @NotNull List<byte[]> strings
+    ) {
+        Integer index = stringIndexes.get(string);
+        if (index == null) {
+            index = strings.size();
+            stringIndexes.put(string, index);
+            strings.add(string.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return index;
+    }
+
+    /**
+     * Reads a bundle, e.g. from a memory-mapped file.
+     *
+     * @return the locale texts, by locale, with English as the default.
+     * @throws IOException if the bundle is invalid.
+     */
+    @NotNull
+    static Map<LocaleKey, Map<String, String>> read(@NotNull ByteBuffer bundle) throws IOException {
+        try {
+            return new Reader(bundle).read();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Invalid locale bundle", e);
+        }
+    }
+
+    /**
+     * Reads a bundle into a provider, adding its key table and strings straight to the key index and string pool.
+     *
+     * @param validationExecutor the executor to validate the locales on, or null to not validate them.
+     * @throws IOException if the bundle is invalid.
+     */
+    @NotNull
+    static LocaleTextProvider createProvider(
+            @NotNull String namespace,
+            @NotNull ByteBuffer bundle,
+            @NotNull Map<LocaleKey, List<LocaleKey>> fallbackChains,
+            @Nullable Executor validationExecutor
+    ) throws IOException {
+        LocaleStringPool stringPool = new LocaleStringPool();
+        Map<LocaleKey, int[]> localeTextIds = new HashMap<>();
+        LocaleTextKeyIndex keyIndex;
+        try {
+            keyIndex = new Reader(bundle).readTexts(stringPool, localeTextIds);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Invalid locale bundle", e);
+        }
+
+        // Validating needs the texts by key, so the bundle is read into maps again in the background
+        CompletableFuture<ValidationReport> validationReport = validationExecutor == null
+                ? null
+                : CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return LocaleValidator.validate(namespace, read(bundle));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, validationExecutor);
+
+        return LocaleTextProvider.create(
+                namespace, keyIndex, stringPool, localeTextIds, fallbackChains, validationExecutor, validationReport);
+    }
+
+    private static final class Reader {
+        private final ByteBuffer bundle;
+
+        // Separate from the bundle, since the bundle's position is in the header while strings are read
+        private final ByteBuffer pool;
+
+        private int[] stringOffsets;
+        private int poolStart;
+
+        // Decoded strings, so strings that appear more than once share an instance
+        private String[] strings;
+        private byte[] stringBytes = new byte[64];
+
+        Reader(@NotNull ByteBuffer bundle) {
+            this.bundle = bundle.duplicate();
+            this.pool = bundle.duplicate();
+        }
+
+        /**
+         * Reads the header, up to the first key.
+         *
+         * @return the header's key count and locale count.
+         */
+        @NotNull
+        private int[] readHeader() throws IOException {
+            if (bundle.getInt() != MAGIC) {
+                throw new IOException("Not a locale bundle");
+            }
+
+            int version = bundle.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported locale bundle version: " + version);
+            }
+
+            int keyCount = bundle.getInt();
+            int localeCount = bundle.getInt();
+            int stringCount = bundle.getInt();
+
+            // Each key, locale, and string takes up at least one int
+            int maxCount = bundle.remaining() / 4;
+            if (keyCount < 0 || keyCount > maxCount ||
+                    localeCount < 0 || localeCount > maxCount ||
+                    stringCount < 0 || stringCount > maxCount) {
+                throw new IOException("Invalid locale bundle header");
+            }
+
+            stringOffsets = new int[stringCount + 1];
+            for (int i = 0; i <= stringCount; i++) {
+                stringOffsets[i] = bundle.getInt();
+            }
+            strings = new String[stringCount];
+            poolStart = bundle.position() + 4 * (keyCount + localeCount * (keyCount + 1));
+
+            return new int[]{keyCount, localeCount};
+        }
+
+        @NotNull
+        private String[] readKeys(int keyCount) {
+            String[] keys = new String[keyCount];
+            for (int i = 0; i < keyCount; i++) {
+                keys[i] = getString(bundle.getInt());
+            }
+
+            return keys;
+        }
+
+        @NotNull
+        Map<LocaleKey, Map<String, String>> read() throws IOException {
+            int[] header = readHeader();
+            int keyCount = header[0];
+            int localeCount = header[1];
+            String[] keys = readKeys(keyCount);
+
+            Map<LocaleKey, Map<String, String>> locales = new HashMap<>();
+            for (int i = 0; i < localeCount; i++) {
+                Locale locale = LocaleFileLoader.getLocaleFromResourceName(getString(bundle.getInt()));
+
+                Map<String, String> localeTexts = new HashMap<>();
+                for (int j = 0; j < keyCount; j++) {
+                    int value = bundle.getInt();
+                    if (value != MISSING) {
+                        localeTexts.put(keys[j], value == NULL ? null : getString(value));
+                    }
+                }
+
+                locales.put(LocaleKey.get(locale), localeTexts);
+            }
+
+            locales.put(LocaleKey.DEFAULT, locales.get(LocaleKey.ENGLISH));
+            return locales;
+        }
+
+        /**
+         * Reads the locales' texts into the string pool, without putting them into maps.
+         *
+         * @param localeTextIds the map to put each locale's text ids into, with English as the default.
+         * @return the key index, whose slots are the bundle's key indexes.
+         */
+        @NotNull
+        LocaleTextKeyIndex readTexts(
+                @NotNull LocaleStringPool stringPool,
+                @NotNull Map<LocaleKey, int[]> localeTextIds
+        ) throws IOException {
+            int[] header = readHeader();
+            int keyCount = header[0];
+            int localeCount = header[1];
+
+            // The bundle's keys are sorted the same as a key index created from maps
+            LocaleTextKeyIndex keyIndex = LocaleTextKeyIndex.create(readKeys(keyCount));
+
+            for (int i = 0; i < localeCount; i++) {
+                Locale locale = LocaleFileLoader.getLocaleFromResourceName(getString(bundle.getInt()));
+                LocaleKey localeKey = LocaleKey.get(locale);
+
+                int[] textIds = new int[keyCount];
+                synchronized (stringPool) {
+                    for (int slot = 0; slot < keyCount; slot++) {
+                        int value = bundle.getInt();
+                        textIds[slot] = value == MISSING || value == NULL
+                                ? LocaleStringPool.NONE
+                                : stringPool.add(getString(value));
+                    }
+                }
+
+                localeTextIds.put(localeKey, textIds);
+            }
+
+            int[] englishTextIds = localeTextIds.get(LocaleKey.ENGLISH);
+            if (englishTextIds != null) {
+                localeTextIds.put(LocaleKey.DEFAULT, englishTextIds);
+            }
+            return keyIndex;
+        }
+
+        @NotNull
+        private String getString(int index) {
+            String string = strings[index];
+            if (string == null) {
+                int start = poolStart + stringOffsets[index];
+                int length = stringOffsets[index + 1] - stringOffsets[index];
+
+                if (stringBytes.length < length) {
+                    stringBytes = new byte[Math.max(length, stringBytes.length * 2)];
+                }
+
+                pool.position(start);
+                pool.get(stringBytes, 0, length);
+
+                string = new String(stringBytes, 0, length, StandardCharsets.UTF_8);
+                strings[index] = string;
+            }
+
+            return string;
+        }
+    }
+}
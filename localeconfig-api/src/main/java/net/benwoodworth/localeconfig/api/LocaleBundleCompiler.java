@@ -0,0 +1,56 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compiles a directory of locale json files into a binary bundle at build time.
+ * <p>
+ * When a bundle is next to a locale resource directory, e.g. /locales.lcbundle for /locales,
+ * {@link LocaleApi#load(String, String)} loads the bundle instead of parsing the json files.
+ * The bundle must be compiled again whenever the locale files change.
+ */
+public final class LocaleBundleCompiler {
+    private LocaleBundleCompiler() {
+    }
+
+    /**
+     * Compiles the locale files in a directory into a bundle.
+     *
+     * @param localeDir  The directory containing locale json files.
+     * @param bundleFile The bundle file to write, e.g. locales.lcbundle for a locales directory.
+     * @throws IOException if a locale file can't be read or parsed, or the bundle can't be written.
+     */
+    public static void compile(@NotNull Path localeDir, @NotNull Path bundleFile) throws IOException {
+        Map<String, Map<String, String>> locales = new HashMap<>();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(localeDir, "*.json")) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                String localeTag = fileName.substring(0, fileName.length() - ".json".length());
+
+                try {
+                    locales.put(localeTag, LocaleFileLoader.readLocaleFile(file));
+                } catch (Exception e) {
+                    throw new IOException("Error compiling " + file + ": " + e.getMessage(), e);
+                }
+            }
+        }
+
+        Files.write(bundleFile, LocaleBundle.write(locales));
+    }
+
+    /**
+     * @return the bundle file name for a locale directory, e.g. locales.lcbundle for locales.
+     */
+    @NotNull
+    public static String getBundleFileName(@NotNull String localeDirName) {
+        return localeDirName + LocaleBundle.FILE_EXTENSION;
+    }
+}
@@ -0,0 +1,229 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Loads locales from a directory, and reloads locale files when they change.
+ * <p>
+ * Only files whose contents changed are parsed again, and only the locales affected by them are resolved again.
+ * The updated provider replaces the previous one in the registry in a single step, so lookups on other threads
+ * never see a partially reloaded namespace. If the namespace is loaded again some other way, the watcher stops
+ * instead of replacing the newer locales.
+ */
+final class LocaleDirectoryWatcher implements Closeable {
+    // How long to wait for more changes before reloading, since editors often write a file multiple times
+    private static final long RELOAD_DELAY_MILLIS = 100;
+
+    private final String namespace;
+    private final Path localeDir;
+    private final LocaleTextProviderRegistry registry;
+
+    private final WatchService watchService;
+    private final Thread thread;
+
+    // Guarded by this
+    private final Map<Path, LocaleFile> localeFiles = new HashMap<>();
+    private LocaleTextProvider provider;
+
+    private LocaleDirectoryWatcher(
+            @NotNull String namespace,
+            @NotNull Path localeDir,
+            @NotNull Map<LocaleKey, List<LocaleKey>> fallbackChains,
+            @NotNull LocaleTextProviderRegistry registry
+    ) throws IOException {
+        this.namespace = namespace;
+        this.localeDir = localeDir;
+        this.registry = registry;
+
+        watchService = localeDir.getFileSystem().newWatchService();
+        localeDir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+
+        reloadFiles(listLocaleFiles());
+        provider = LocaleTextProvider.create(namespace, getLocales(), fallbackChains);
+        registry.register(provider, true);
+
+        thread = new Thread(this::watch, "LocaleConfig " + namespace + " locale watcher");
+        thread.setDaemon(true);
+    }
+
+    @NotNull
+    static LocaleDirectoryWatcher start(
+            @NotNull String namespace,
+            @NotNull Path localeDir,
+            @NotNull Map<LocaleKey, List<LocaleKey>> fallbackChains,
+            @NotNull LocaleTextProviderRegistry registry
+    ) throws IOException {
+        LocaleDirectoryWatcher watcher = new LocaleDirectoryWatcher(namespace, localeDir, fallbackChains, registry);
+        watcher.thread.start();
+        return watcher;
+    }
+
+    @Override
+    public void close() throws IOException {
+        thread.interrupt();
+        watchService.close();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey watchKey = watchService.take();
+                Thread.sleep(RELOAD_DELAY_MILLIS);
+
+                Set<Path> changedFiles = new HashSet<>();
+                boolean overflow = false;
+                do {
+                    for (WatchEvent<?> event : watchKey.pollEvents()) {
+                        if (event.kind() == OVERFLOW) {
+                            overflow = true;
+                        } else {
+                            changedFiles.add(localeDir.resolve((Path) event.context()));
+                        }
+                    }
+
+                    if (!watchKey.reset()) {
+                        LocaleApi.logErr(namespace, "Stopped watching " + localeDir + ", since it is no longer accessible");
+                        return;
+                    }
+                } while ((watchKey = watchService.poll()) != null);
+
+                if (overflow) {
+                    synchronized (this) {
+                        changedFiles.addAll(localeFiles.keySet());
+                    }
+                    changedFiles.addAll(listLocaleFiles());
+                }
+
+                reload(changedFiles);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+        } catch (Exception e) {
+            new Exception("Error watching " + localeDir + ": " + e.getMessage(), e).printStackTrace();
+        }
+    }
+
+    synchronized void reload(@NotNull Collection<Path> changedFiles) {
+        Set<LocaleKey> changedLocaleKeys = reloadFiles(changedFiles);
+        if (changedLocaleKeys.isEmpty()) {
+            return;
+        }
+
+        if (changedLocaleKeys.contains(LocaleKey.ENGLISH)) {
+            changedLocaleKeys.add(LocaleKey.DEFAULT);
+        }
+
+        LocaleTextProvider updatedProvider = provider.update(getLocales(), changedLocaleKeys);
+        if (!registry.replace(provider, updatedProvider)) {
+            LocaleApi.log(namespace, "Stopped watching " + localeDir + ", since the locales were loaded again");
+            try {
+                close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            return;
+        }
+        provider = updatedProvider;
+
+        LocaleApi.log(namespace, "Reloaded " + changedLocaleKeys.size() + " locale(s) from " + localeDir);
+    }
+
+    @NotNull
+    private List<Path> listLocaleFiles() throws IOException {
+        List<Path> result = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(localeDir)) {
+            for (Path file : files) {
+                result.add(file);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Reads and parses the files if their contents changed.
+     *
+     * @return the locales that were added, removed, or changed.
+     */
+    @NotNull
+    private Set<LocaleKey> reloadFiles(@NotNull Collection<Path> files) {
+        Set<LocaleKey> changedLocaleKeys = new HashSet<>();
+
+        for (Path file : files) {
+            String fileName = file.getFileName().toString();
+            if (!fileName.toLowerCase().endsWith(".json")) {
+                continue;
+            }
+
+            LocaleFile previous = localeFiles.get(file);
+            LocaleKey localeKey = LocaleKey.get(LocaleFileLoader.getLocaleFromResourceName(fileName));
+
+            if (!Files.isRegularFile(file)) {
+                if (previous != null) {
+                    localeFiles.remove(file);
+                    changedLocaleKeys.add(localeKey);
+                }
+                continue;
+            }
+
+            try {
+                byte[] bytes = Files.readAllBytes(file);
+                byte[] hash = hash(bytes);
+
+                if (previous != null && Arrays.equals(previous.hash, hash)) {
+                    continue;
+                }
+
+                Map<String, String> localeTexts = LocaleFileLoader.readLocaleJson(bytes);
+                localeFiles.put(file, new LocaleFile(localeKey, hash, localeTexts));
+                changedLocaleKeys.add(localeKey);
+            } catch (Exception e) {
+                // Keep the previously loaded version of the file
+                new Exception("Error loading " + file + ": " + e.getMessage(), e).printStackTrace();
+            }
+        }
+
+        return changedLocaleKeys;
+    }
+
+    @NotNull
+    private Map<LocaleKey, Map<String, String>> getLocales() {
+        Map<LocaleKey, Map<String, String>> locales = new HashMap<>();
+        for (LocaleFile localeFile : localeFiles.values()) {
+            locales.put(localeFile.localeKey, localeFile.localeTexts);
+        }
+
+        locales.put(LocaleKey.DEFAULT, locales.get(LocaleKey.ENGLISH));
+        return locales;
+    }
+
+    @NotNull
+    private static byte[] hash(@NotNull byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class LocaleFile {
+        final LocaleKey localeKey;
+        final byte[] hash;
+        final Map<String, String> localeTexts;
+
+        LocaleFile(@NotNull LocaleKey localeKey, @NotNull byte[] hash, @Nullable Map<String, String> localeTexts) {
+            this.localeKey = localeKey;
+            this.hash = hash;
+            this.localeTexts = localeTexts;
+        }
+    }
+}
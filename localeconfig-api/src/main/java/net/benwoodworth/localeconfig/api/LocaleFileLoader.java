@@ -1,17 +1,25 @@
 package net.benwoodworth.localeconfig.api;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.*;
 import java.net.JarURLConnection;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.text.ParseException;
 import java.util.*;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 class LocaleFileLoader {
+    // Files this large are memory-mapped instead of read into the heap
+    private static final long MAP_THRESHOLD = 64 * 1024;
+
     private LocaleFileLoader() {
     }
 
@@ -19,24 +27,185 @@ class LocaleFileLoader {
             String namespace,
             URL localeResourceDir
     ) throws IOException {
-        List<String> localeResources = getResourceFiles(localeResourceDir);
+        // Run on the calling thread
+        return loadLocaleFiles(namespace, localeResourceDir, Runnable::run);
+    }
+
+    /**
+     * Loads the locale files, reading and parsing them on the executor.
+     * <p>
+     * Errors are reported in the same order as the locale files, regardless of the order they're parsed in.
+     */
+    static Map<LocaleKey, Map<String, String>> loadLocaleFiles(
+            String namespace,
+            URL localeResourceDir,
+            Executor executor
+    ) throws IOException {
+        if (localeResourceDir.getProtocol().equals("file")) {
+            // e.g. an exploded classes directory
+            return loadLocaleFiles(namespace, getPath(localeResourceDir), executor);
+        }
+
+        return loadLocaleFiles(
+                namespace,
+                getResourceFiles(localeResourceDir),
+                localeResource -> localeResource,
+                LocaleFileLoader::readLocaleResource,
+                executor
+        );
+    }
+
+    /**
+     * Loads the locale files in a directory, reading and parsing them on the executor.
+     *
+     * @see #loadLocaleFiles(String, URL, Executor)
+     */
+    static Map<LocaleKey, Map<String, String>> loadLocaleFiles(
+            String namespace,
+            Path localeDir,
+            Executor executor
+    ) throws IOException {
+        return loadLocaleFiles(
+                namespace,
+                listLocaleFiles(localeDir),
+                localeFile -> localeFile.getFileName().toString(),
+                LocaleFileLoader::readLocaleFile,
+                executor
+        );
+    }
+
+    /**
+     * Finds the locale files without reading them, so each locale can be parsed the first time it's needed.
+     * <p>
+     * The suppliers read and parse their locale file each time they're called, and return null after reporting
+     * the error if the file couldn't be loaded.
+     *
+     * @return the locale file suppliers, by locale. Doesn't contain {@link LocaleKey#DEFAULT}.
+     */
+    static Map<LocaleKey, Supplier<Map<String, String>>> indexLocaleFiles(
+            String namespace,
+            URL localeResourceDir
+    ) throws IOException {
+        if (localeResourceDir.getProtocol().equals("file")) {
+            return indexLocaleFiles(namespace, getPath(localeResourceDir));
+        }
+
+        return indexLocaleFiles(
+                namespace,
+                getResourceFiles(localeResourceDir),
+                localeResource -> localeResource,
+                LocaleFileLoader::readLocaleResource
+        );
+    }
+
+    /**
+     * Finds the locale files in a directory without reading them.
+     *
+     * @see #indexLocaleFiles(String, URL)
+     */
+    static Map<LocaleKey, Supplier<Map<String, String>>> indexLocaleFiles(
+            String namespace,
+            Path localeDir
+    ) throws IOException {
+        return indexLocaleFiles(
+                namespace,
+                listLocaleFiles(localeDir),
+                localeFile -> localeFile.getFileName().toString(),
+                LocaleFileLoader::readLocaleFile
+        );
+    }
+
+    private static <T> Map<LocaleKey, Supplier<Map<String, String>>> indexLocaleFiles(
+            String namespace,
+            List<T> localeFiles,
+            Function<T, String> getFileName,
+            LocaleFileReader<T> reader
+    ) {
+        Map<LocaleKey, Supplier<Map<String, String>>> localeFileIndex = new HashMap<>();
+        for (T localeFile : localeFiles) {
+            String fileName = getFileName.apply(localeFile);
+            if (!fileName.toLowerCase().endsWith(".json")) {
+                LocaleApi.logErr(namespace, fileName + " is not a .json file");
+                continue;
+            }
+
+            localeFileIndex.put(LocaleKey.get(getLocaleFromResourceName(fileName)), () -> {
+                try {
+                    return reader.read(localeFile);
+                } catch (Exception e) {
+                    new Exception("Error loading " + fileName + ": " + e.getMessage(), e).printStackTrace();
+                    return null;
+                }
+            });
+        }
+
+        return localeFileIndex;
+    }
+
+    private static List<Path> listLocaleFiles(Path localeDir) throws IOException {
+        List<Path> localeFiles = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(localeDir)) {
+            for (Path file : files) {
+                if (!Files.isDirectory(file)) {
+                    localeFiles.add(file);
+                }
+            }
+        }
+
+        // Sorted, so errors are reported in a consistent order
+        Collections.sort(localeFiles);
+        return localeFiles;
+    }
+
+    private static Path getPath(URL fileUrl) throws IOException {
+        try {
+            return Paths.get(fileUrl.toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid file URL: " + fileUrl, e);
+        }
+    }
+
+    private static <T> Map<LocaleKey, Map<String, String>> loadLocaleFiles(
+            String namespace,
+            List<T> localeFiles,
+            Function<T, String> getFileName,
+            LocaleFileReader<T> reader,
+            Executor executor
+    ) {
+        List<CompletableFuture<Map<String, String>>> parsedFiles = new ArrayList<>(localeFiles.size());
+        for (T localeFile : localeFiles) {
+            if (!getFileName.apply(localeFile).toLowerCase().endsWith(".json")) {
+                parsedFiles.add(null);
+                continue;
+            }
+
+            parsedFiles.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return reader.read(localeFile);
+                } catch (IOException | ParseException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor));
+        }
 
         Map<LocaleKey, Map<String, String>> locales = new HashMap<>();
-        for (String localeResource : localeResources) {
-            if (!localeResource.toLowerCase().endsWith(".json")) {
-                LocaleApi.logErr(namespace, localeResource + " is not a .json file");
+        for (int i = 0; i < localeFiles.size(); i++) {
+            String fileName = getFileName.apply(localeFiles.get(i));
+            CompletableFuture<Map<String, String>> parsedFile = parsedFiles.get(i);
+
+            if (parsedFile == null) {
+                LocaleApi.logErr(namespace, fileName + " is not a .json file");
                 continue;
             }
 
             try {
-                InputStream resourceStream = LocaleApi.class.getResourceAsStream("/" + localeResource);
-                BufferedReader reader = new BufferedReader(new InputStreamReader(resourceStream, StandardCharsets.UTF_8));
-                Map<String, String> json = JsonReader.readLocaleJson(reader);
+                Map<String, String> json = parsedFile.join();
 
-                Locale locale = getLocaleFromResourceName(localeResource);
+                Locale locale = getLocaleFromResourceName(fileName);
                 locales.put(LocaleKey.get(locale), json);
             } catch (Exception e) {
-                new Exception("Error loading " + localeResource + ": " + e.getMessage(), e).printStackTrace();
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                new Exception("Error loading " + fileName + ": " + cause.getMessage(), cause).printStackTrace();
             }
         }
 
@@ -45,7 +214,56 @@ class LocaleFileLoader {
         return locales;
     }
 
-    private static Locale getLocaleFromResourceName(String resourceName) {
+    /**
+     * Reads a locale file. Large files are memory-mapped and decoded straight from the mapped buffer.
+     */
+    static Map<String, String> readLocaleFile(Path file) throws IOException, ParseException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            ByteBuffer bytes;
+            if (size >= MAP_THRESHOLD) {
+                bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                bytes = ByteBuffer.allocate((int) size);
+                while (bytes.hasRemaining() && channel.read(bytes) != -1) {
+                    // Keep reading until the buffer is full
+                }
+                bytes.flip();
+            }
+
+            return readLocaleJson(bytes);
+        }
+    }
+
+    private static Map<String, String> readLocaleResource(String localeResource) throws IOException, ParseException {
+        try (InputStream resourceStream = LocaleApi.class.getResourceAsStream("/" + localeResource)) {
+            return readLocaleJson(readAllBytes(resourceStream));
+        }
+    }
+
+    static Map<String, String> readLocaleJson(byte[] bytes) throws ParseException {
+        return readLocaleJson(ByteBuffer.wrap(bytes));
+    }
+
+    static Map<String, String> readLocaleJson(ByteBuffer bytes) throws ParseException {
+        // Decoded into a char array that's parsed without copying it again
+        return JsonReader.readLocaleJson(StandardCharsets.UTF_8.decode(bytes));
+    }
+
+    private static byte[] readAllBytes(InputStream stream) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        byte[] buffer = new byte[8192];
+        int bytesRead;
+        while ((bytesRead = stream.read(buffer)) != -1) {
+            bytes.write(buffer, 0, bytesRead);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    static Locale getLocaleFromResourceName(String resourceName) {
         int lastSlash = resourceName.lastIndexOf('/');
         int lastDot = resourceName.lastIndexOf('.');
 
@@ -56,7 +274,26 @@ class LocaleFileLoader {
             localeTag = resourceName.substring(lastSlash + 1, lastDot);
         }
 
-        return Locale.forLanguageTag(localeTag);
+        // Minecraft's language files use underscores, e.g. en_us.json
+        return Locale.forLanguageTag(localeTag.replace('_', '-'));
+    }
+
+    /**
+     * Reads a compiled locale bundle, to be read with {@link LocaleBundle}. Bundles in the filesystem are
+     * memory-mapped.
+     *
+     * @see LocaleBundleCompiler
+     */
+    static ByteBuffer readLocaleBundle(URL bundleUrl) throws IOException {
+        if (bundleUrl.getProtocol().equals("file")) {
+            try (FileChannel channel = FileChannel.open(getPath(bundleUrl), StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+
+        try (InputStream bundleStream = bundleUrl.openStream()) {
+            return ByteBuffer.wrap(readAllBytes(bundleStream));
+        }
     }
 
     private static List<String> getResourceFiles(URL resourceUrl) throws IOException {
@@ -68,22 +305,22 @@ class LocaleFileLoader {
     }
 
     private static List<String> listJarDirContents(URL resourceUrl) throws IOException {
-        List<String> result = new ArrayList<>();
-
         JarURLConnection connection = (JarURLConnection) resourceUrl.openConnection();
         String path = connection.getEntryName();
+        URL jarFileUrl = connection.getJarFileURL();
 
-        JarFile jarFile = connection.getJarFile();
-
-        Enumeration<JarEntry> entries = jarFile.entries();
-        while (entries.hasMoreElements()) {
-            JarEntry entry = entries.nextElement();
-
-            if (!entry.getName().equals(path) && entry.getName().startsWith(path) && !entry.isDirectory()) {
-                result.add(entry.getName());
-            }
+        // Jars in the filesystem are indexed once, instead of going through all their entries every time
+        JarDirectoryIndex index;
+        if (jarFileUrl.getProtocol().equals("file")) {
+            index = JarDirectoryIndex.get(getPath(jarFileUrl));
+        } else {
+            index = JarDirectoryIndex.create(connection.getJarFile());
         }
 
-        return result;
+        return index.list(path == null ? "" : path);
+    }
+
+    private interface LocaleFileReader<T> {
+        Map<String, String> read(T localeFile) throws IOException, ParseException;
     }
 }
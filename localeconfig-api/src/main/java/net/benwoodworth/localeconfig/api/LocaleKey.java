@@ -3,51 +3,158 @@ package net.benwoodworth.localeconfig.api;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * A normalized locale, used to look up locale texts.
+ * <p>
+ * Locale keys for standard languages and countries are interned, so there is usually only one instance for a
+ * language/country. Players' locales come from their clients though, so locales with variants or made up codes
+ * aren't interned, and neither is anything past {@link #MAX_INTERNED} locale keys. Locale keys are compared by value.
+ */
 final class LocaleKey {
+    // Far more than the locales Minecraft supports
+    static final int MAX_INTERNED = 1024;
+
+    private static final Set<String> isoLanguages = new HashSet<>(Arrays.asList(Locale.getISOLanguages()));
+    private static final Set<String> isoCountries = new HashSet<>();
+
+    static {
+        for (String country : Locale.getISOCountries()) {
+            isoCountries.add(country.toLowerCase(Locale.ENGLISH));
+        }
+    }
+
+    // Canonical instances, by normalized language/country/variant
+    private static final ConcurrentMap<String, LocaleKey> canonicalLocaleKeys = new ConcurrentHashMap<>();
+
+    // Canonical instances, by the locale they were requested with
+    private static final ConcurrentMap<Locale, LocaleKey> localeKeys = new ConcurrentHashMap<>();
+
     @NotNull
-    static LocaleKey DEFAULT = new LocaleKey(null, null, null);
-    static LocaleKey ENGLISH = get(Locale.ENGLISH);
+    static final LocaleKey DEFAULT = new LocaleKey(null, null, null, null, true);
+    static final LocaleKey ENGLISH = get(Locale.ENGLISH);
 
     private final String language;
     private final String country;
     private final String variant;
 
+    private final LocaleKey broadened;
+    private final Locale locale;
+    private final int hashCode;
+    private final boolean interned;
+
     @NotNull
     static LocaleKey get(@Nullable String language, @Nullable String country, @Nullable String variant) {
-        return new LocaleKey(
-                (language == null || language.isEmpty()) ? null : language.toLowerCase(Locale.ENGLISH),
-                (country == null || country.isEmpty()) ? null : country.toLowerCase(Locale.ENGLISH),
-                (variant == null || variant.isEmpty()) ? null : variant.toLowerCase(Locale.ENGLISH)
-        );
+        language = (language == null || language.isEmpty()) ? null : language.toLowerCase(Locale.ENGLISH);
+        country = (country == null || country.isEmpty()) ? null : country.toLowerCase(Locale.ENGLISH);
+        variant = (variant == null || variant.isEmpty()) ? null : variant.toLowerCase(Locale.ENGLISH);
+
+        return intern(language, country, variant);
     }
 
     @NotNull
     static LocaleKey get(@Nullable Locale locale) {
         if (locale == null) {
             return DEFAULT;
+        }
+
+        LocaleKey localeKey = localeKeys.get(locale);
+        if (localeKey == null) {
+            localeKey = get(locale.getLanguage(), locale.getCountry(), locale.getVariant());
+
+            if (localeKey.interned && localeKeys.size() < MAX_INTERNED) {
+                LocaleKey existing = localeKeys.putIfAbsent(locale, localeKey);
+                if (existing != null) {
+                    localeKey = existing;
+                }
+            }
+        }
+
+        return localeKey;
+    }
+
+    @NotNull
+    private static LocaleKey intern(@Nullable String language, @Nullable String country, @Nullable String variant) {
+        if (language == null && country == null && variant == null) {
+            return DEFAULT;
+        }
+
+        String id = language + "_" + country + "_" + variant;
+        LocaleKey localeKey = canonicalLocaleKeys.get(id);
+        if (localeKey != null) {
+            return localeKey;
+        }
+
+        // Interned before this key, since ConcurrentHashMap doesn't support recursive updates
+        LocaleKey broadened;
+        if (variant != null) {
+            broadened = intern(language, country, null);
+        } else if (country != null) {
+            broadened = intern(language, null, null);
         } else {
-            return get(locale.getLanguage(), locale.getCountry(), locale.getVariant());
+            broadened = DEFAULT;
+        }
+
+        boolean interned = isInternable(language, country, variant) && canonicalLocaleKeys.size() < MAX_INTERNED;
+        localeKey = new LocaleKey(language, country, variant, broadened, interned);
+        if (!interned) {
+            return localeKey;
         }
+
+        LocaleKey existing = canonicalLocaleKeys.putIfAbsent(id, localeKey);
+        return existing != null ? existing : localeKey;
     }
 
-    private LocaleKey(@Nullable String language, @Nullable String country, @Nullable String variant) {
+    private static boolean isInternable(@Nullable String language, @Nullable String country, @Nullable String variant) {
+        return variant == null &&
+                isoLanguages.contains(language) &&
+                (country == null || isoCountries.contains(country));
+    }
+
+    private LocaleKey(
+            @Nullable String language,
+            @Nullable String country,
+            @Nullable String variant,
+            @Nullable LocaleKey broadened,
+            boolean interned
+    ) {
         this.language = language;
         this.country = country;
         this.variant = variant;
+
+        this.broadened = broadened == null ? this : broadened;
+        this.locale = new Locale(
+                language == null ? "" : language,
+                country == null ? "" : country,
+                variant == null ? "" : variant
+        );
+        this.hashCode = Objects.hash(language, country, variant);
+        this.interned = interned;
+    }
+
+    @NotNull
+    Locale toLocale() {
+        return locale;
     }
 
     @NotNull
     LocaleKey broadened() {
-        if (variant != null) {
-            return new LocaleKey(language, country, null);
-        }
-        if (country != null) {
-            return new LocaleKey(language, null, null);
-        }
-        return DEFAULT;
+        return broadened;
+    }
+
+    /**
+     * @return whether this is the interned instance, so there's a bounded number of them, and things can be
+     * cached for them.
+     */
+    boolean isInterned() {
+        return interned;
     }
 
     @Override
@@ -58,16 +165,17 @@ final class LocaleKey {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (!(o instanceof LocaleKey)) return false;
 
-        LocaleKey that = (LocaleKey) o;
-        return Objects.equals(language, that.language) &&
-                Objects.equals(country, that.country) &&
-                Objects.equals(variant, that.variant);
+        LocaleKey localeKey = (LocaleKey) o;
+        return hashCode == localeKey.hashCode &&
+                Objects.equals(language, localeKey.language) &&
+                Objects.equals(country, localeKey.country) &&
+                Objects.equals(variant, localeKey.variant);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(language, country, variant);
+        return hashCode;
     }
 }
@@ -0,0 +1,101 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A summary of the memory used by a namespace's loaded locales, including how much was saved by sharing locale text
+ * that's the same in several locales.
+ * <p>
+ * Byte counts are estimates, for a 64-bit JVM with compressed references.
+ *
+ * @see LocaleApi#getMemoryReport(String)
+ */
+public final class LocaleMemoryReport {
+    @NotNull
+    private final String namespace;
+    private final int localeCount;
+    private final int keyCount;
+    private final long textCount;
+    private final int distinctTextCount;
+    private final long deduplicatedTextCount;
+    private final long bytesSaved;
+    private final long textBytes;
+
+    LocaleMemoryReport(
+            @NotNull String namespace,
+            int localeCount,
+            int keyCount,
+            @NotNull LocaleStringPool stringPool
+    ) {
+        this.namespace = namespace;
+        this.localeCount = localeCount;
+        this.keyCount = keyCount;
+        this.textCount = stringPool.getTextCount();
+        this.distinctTextCount = stringPool.getDistinctTextCount();
+        this.deduplicatedTextCount = stringPool.getDeduplicatedCount();
+        this.bytesSaved = stringPool.getDeduplicatedBytes();
+        this.textBytes = stringPool.getStoredBytes();
+    }
+
+    @NotNull
+    public String getNamespace() {
+        return namespace;
+    }
+
+    /**
+     * @return the number of locales that have been loaded. Lazily loaded locales aren't counted until they're used.
+     */
+    public int getLocaleCount() {
+        return localeCount;
+    }
+
+    /**
+     * @return the number of locale text keys, which are shared by all of the namespace's locales.
+     */
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    /**
+     * @return the number of locale texts that were loaded, across all locales.
+     */
+    public long getTextCount() {
+        return textCount;
+    }
+
+    /**
+     * @return the number of distinct locale texts that are kept in memory.
+     */
+    public int getDistinctTextCount() {
+        return distinctTextCount;
+    }
+
+    /**
+     * @return the number of locale texts that were replaced by an equal text from another locale.
+     */
+    public long getDeduplicatedTextCount() {
+        return deduplicatedTextCount;
+    }
+
+    /**
+     * @return the estimated number of bytes saved by sharing equal locale texts.
+     */
+    public long getBytesSaved() {
+        return bytesSaved;
+    }
+
+    /**
+     * @return the number of bytes taken up by the distinct locale texts, which are stored packed together.
+     */
+    public long getTextBytes() {
+        return textBytes;
+    }
+
+    @Override
+    @NotNull
+    public String toString() {
+        return namespace + ": " + localeCount + " locales, " + keyCount + " keys, " +
+                textCount + " texts (" + distinctTextCount + " distinct, " + textBytes / 1024 + " KiB), " +
+                deduplicatedTextCount + " duplicates sharing text, ~" + bytesSaved / 1024 + " KiB saved";
+    }
+}
@@ -0,0 +1,282 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Stores the locale texts of a namespace's locales packed into one char array, so a locale costs an array of text
+ * ids instead of an object per text. Text that's the same in several locales (e.g. en-GB and en, or es-MX and es)
+ * is only stored once.
+ * <p>
+ * Texts are added while locales are loaded, and are materialized as strings and compiled the first time they're
+ * looked up, once for all the locales that share them. Texts with plural placeholders are compiled once for each
+ * plural rule instead, since e.g. en and ru choose different branches. Texts can be read without locking, as long
+ * as their ids were published safely.
+ */
+final class LocaleStringPool {
+    /**
+     * The id of a missing text.
+     */
+    static final int NONE = -1;
+
+    // The texts, one after another. Text i is from offsets[i] to offsets[i + 1]
+    private volatile char[] chars = new char[1024];
+    private volatile int[] offsets = new int[65];
+
+    private int count = 0;
+    private int[] hashes = new int[64];
+
+    // Texts that have been looked up, and their templates, by id. Grown when a looked up id doesn't fit
+    private volatile String[] strings = new String[0];
+    private volatile LocaleTextTemplate[] templates = new LocaleTextTemplate[0];
+
+    // Templates of plural texts whose plural rule is different from the template in templates, by plural rule
+    private final ConcurrentMap<PluralRule, LocaleTextTemplate[]> pluralTemplates = new ConcurrentHashMap<>();
+
+    // Open addressing hash table of text ids + 1, with 0 for empty buckets
+    private int[] table = new int[128];
+
+    private long textCount = 0;
+    private long deduplicatedCount = 0;
+    private long deduplicatedBytes = 0;
+
+    /**
+     * Adds a locale's texts.
+     * Keys that aren't in the key index, and null texts, are left out.
+     *
+     * @return the locale's text ids, indexed by key slot, or {@link #NONE}.
+     */
+    @NotNull
+    int[] addTexts(@NotNull Map<String, String> localeTexts, @NotNull LocaleTextKeyIndex keyIndex) {
+        int[] textIds = new int[keyIndex.size()];
+        Arrays.fill(textIds, NONE);
+
+        synchronized (this) {
+            for (Map.Entry<String, String> localeText : localeTexts.entrySet()) {
+                int slot = keyIndex.getSlot(localeText.getKey());
+                if (slot != -1 && localeText.getValue() != null) {
+                    textIds[slot] = add(localeText.getValue());
+                }
+            }
+        }
+
+        return textIds;
+    }
+
+    /**
+     * @return the text's id.
+     */
+    synchronized int add(@NotNull String text) {
+        textCount++;
+
+        int hash = text.hashCode();
+        int mask = table.length - 1;
+        int bucket = mix(hash) & mask;
+        while (table[bucket] != 0) {
+            int id = table[bucket] - 1;
+            if (hashes[id] == hash && textEquals(id, text)) {
+                deduplicatedCount++;
+                deduplicatedBytes += getRetainedSize(text);
+                return id;
+            }
+            bucket = (bucket + 1) & mask;
+        }
+
+        int id = count++;
+        append(id, text, hash);
+        table[bucket] = id + 1;
+
+        // Keep the table at most half full
+        if (count * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return id;
+    }
+
+    private void append(int id, @NotNull String text, int hash) {
+        int[] offsets = this.offsets;
+        if (id + 2 > offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            this.offsets = offsets;
+        }
+        if (id >= hashes.length) {
+            hashes = Arrays.copyOf(hashes, hashes.length * 2);
+        }
+
+        int start = offsets[id];
+        int end = start + text.length();
+
+        char[] chars = this.chars;
+        if (end > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(end, chars.length * 2));
+            this.chars = chars;
+        }
+
+        text.getChars(0, text.length(), chars, start);
+        offsets[id + 1] = end;
+        hashes[id] = hash;
+    }
+
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        int mask = capacity - 1;
+        for (int id = 0; id < count; id++) {
+            int bucket = mix(hashes[id]) & mask;
+            while (table[bucket] != 0) {
+                bucket = (bucket + 1) & mask;
+            }
+            table[bucket] = id + 1;
+        }
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private boolean textEquals(int id, @NotNull String text) {
+        int start = offsets[id];
+        if (offsets[id + 1] - start != text.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < text.length(); i++) {
+            if (chars[start + i] != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets a text, materializing it if it hasn't been looked up yet.
+     */
+    @NotNull
+    String getText(int id) {
+        String[] strings = this.strings;
+        String text = id < strings.length ? strings[id] : null;
+        if (text == null) {
+            // If two threads materialize the same text, one of them is kept
+            int[] offsets = this.offsets;
+            text = new String(chars, offsets[id], offsets[id + 1] - offsets[id]);
+
+            if (id >= strings.length) {
+                strings = growStrings();
+            }
+            strings[id] = text;
+        }
+
+        return text;
+    }
+
+    /**
+     * Gets a text's template for a locale, compiling it if it hasn't been compiled for the locale's plural rule with
+     * the current global substitutions.
+     */
+    @NotNull
+    LocaleTextTemplate getTemplate(int id, @NotNull Locale locale) {
+        PluralRule pluralRule = PluralRule.forLocale(locale);
+
+        LocaleTextTemplate[] templates = this.templates;
+        LocaleTextTemplate sharedTemplate = id < templates.length ? templates[id] : null;
+        LocaleTextTemplate template = sharedTemplate;
+        if (template != null && template.getPluralRule() != null && template.getPluralRule() != pluralRule) {
+            LocaleTextTemplate[] ruleTemplates = pluralTemplates.get(pluralRule);
+            template = ruleTemplates != null && id < ruleTemplates.length ? ruleTemplates[id] : null;
+        }
+
+        if (template == null || template.getGlobals() != GlobalSubstitutions.get()) {
+            template = LocaleTextTemplate.compile(getText(id), locale);
+
+            // Kept with the shared templates, unless another plural rule's template is already there
+            GlobalSubstitutions globals = template.getGlobals();
+            if (template.getPluralRule() == null || sharedTemplate == null || sharedTemplate.getGlobals() != globals ||
+                    sharedTemplate.getPluralRule() == template.getPluralRule()) {
+                if (id >= templates.length) {
+                    templates = growTemplates();
+                }
+                templates[id] = template;
+            } else {
+                LocaleTextTemplate[] ruleTemplates = pluralTemplates.get(pluralRule);
+                if (ruleTemplates == null || id >= ruleTemplates.length) {
+                    ruleTemplates = growPluralTemplates(pluralRule);
+                }
+                ruleTemplates[id] = template;
+            }
+        }
+
+        return template;
+    }
+
+    // Texts looked up while growing can be lost, but they're only materialized again
+    @NotNull
+    private synchronized String[] growStrings() {
+        String[] strings = Arrays.copyOf(this.strings, count);
+        this.strings = strings;
+        return strings;
+    }
+
+    @NotNull
+    private synchronized LocaleTextTemplate[] growTemplates() {
+        LocaleTextTemplate[] templates = Arrays.copyOf(this.templates, count);
+        this.templates = templates;
+        return templates;
+    }
+
+    @NotNull
+    private synchronized LocaleTextTemplate[] growPluralTemplates(@NotNull PluralRule pluralRule) {
+        LocaleTextTemplate[] ruleTemplates = pluralTemplates.get(pluralRule);
+        ruleTemplates = ruleTemplates == null
+                ? new LocaleTextTemplate[count]
+                : Arrays.copyOf(ruleTemplates, count);
+        pluralTemplates.put(pluralRule, ruleTemplates);
+        return ruleTemplates;
+    }
+
+    /**
+     * @return the number of texts that have been added.
+     */
+    synchronized long getTextCount() {
+        return textCount;
+    }
+
+    /**
+     * @return the number of distinct texts.
+     */
+    synchronized int getDistinctTextCount() {
+        return count;
+    }
+
+    /**
+     * @return the number of texts that were already in the pool when they were added.
+     */
+    synchronized long getDeduplicatedCount() {
+        return deduplicatedCount;
+    }
+
+    /**
+     * @return the estimated number of bytes the deduplicated texts would have taken up as strings.
+     */
+    synchronized long getDeduplicatedBytes() {
+        return deduplicatedBytes;
+    }
+
+    /**
+     * @return the number of bytes taken up by the packed texts.
+     */
+    synchronized long getStoredBytes() {
+        return 2L * offsets[count] + 8L * count;
+    }
+
+    /**
+     * Estimates the heap taken up by a string on a 64-bit JVM with compressed references: a 24 byte String, and
+     * its char array with a 16 byte header, each padded to 8 bytes.
+     */
+    static long getRetainedSize(@NotNull String string) {
+        return 24 + ((16 + 2L * string.length() + 7) & ~7L);
+    }
+}
@@ -3,25 +3,54 @@ package net.benwoodworth.localeconfig.api;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class LocaleText {
+    private static final int MAX_THREAD_LOCAL_BUILDER_CAPACITY = 8192;
+    private static final ThreadLocal<StringBuilder> threadLocalBuilder = ThreadLocal.withInitial(StringBuilder::new);
+
     @NotNull
     private final Locale locale;
 
     @NotNull
     private final String text;
 
+    // Where the text and its template are shared from, if it's from a provider
+    @Nullable
+    private final LocaleStringPool stringPool;
+    private final int textId;
+
+    // Compiled when first substituted
+    @Nullable
+    private volatile LocaleTextTemplate template = null;
+
     LocaleText(@NotNull Locale locale, @NotNull String text) {
         this.locale = locale;
         this.text = text;
+        this.stringPool = null;
+        this.textId = LocaleStringPool.NONE;
+    }
+
+    /**
+     * Locale text that shares its text and template with the other locale texts with the same text id.
+     */
+    LocaleText(@NotNull Locale locale, @NotNull LocaleStringPool stringPool, int textId) {
+        this.locale = locale;
+        this.text = stringPool.getText(textId);
+        this.stringPool = stringPool;
+        this.textId = textId;
     }
 
+    /**
+     * @return the locale the text was looked up for, even if the text is from a broader locale, e.g. en-US for
+     * text from en. Values are formatted for this locale.
+     */
     @NotNull
     public Locale getLocale() {
         return locale;
@@ -59,7 +88,20 @@ public class LocaleText {
      * Substitute named values in the locale text:
      * <ul>
      *     <li><code>$key</code> and <code>${key}</code> will be substituted for values in the substitution map.</li>
-     *     <li><code>$$</code> will be substituted for <code>$</code></li>
+     *     <li><code>${key,format}</code> will be substituted for values formatted for the locale, with formats
+     *     <code>number</code>, <code>integer</code>, <code>percent</code>, <code>currency</code>,
+     *     <code>date</code>, <code>time</code>, and <code>datetime</code>. Date and time formats can specify a style:
+     *     <code>short</code>, <code>medium</code>, <code>long</code>, or <code>full</code>, e.g.
+     *     <code>${time,date:short}</code>. Values that can't be formatted are substituted as is.</li>
+     *     <li><code>${key,plural, one{# item} other{# items}}</code> will be substituted for the branch matching the
+     *     value's plural category in the locale (<code>zero</code>, <code>one</code>, <code>two</code>,
+     *     <code>few</code>, <code>many</code>, or <code>other</code>), or an exact value like <code>=0</code>.
+     *     <code>#</code> is substituted for the number.</li>
+     *     <li><code>${key,select, male{his} female{her} other{their}}</code> will be substituted for the branch
+     *     matching the value, or <code>other</code>.</li>
+     *     <li><code>$$</code> will be substituted for <code>$</code>, and global keys like <code>$red</code> will be
+     *     substituted for formatting codes. More globals can be set with
+     *     {@link LocaleApi#setGlobalSubstitution(String, String)}.</li>
      * </ul>
      *
      * <p>
@@ -71,7 +113,228 @@ public class LocaleText {
      */
     @NotNull
     public String substitute(@NotNull Map<@NotNull String, @Nullable Object> substitutions) {
-        return substituteText(text, substitutions);
+        validateSubstitutions(substitutions);
+        return getTemplate().substitute(SubstitutionValues.of(substitutions), locale);
+    }
+
+    /**
+     * Substitute named values in the locale text, appending the result.
+     *
+     * @param out           where to append the substituted locale text.
+     * @param substitutions the values to substitute.
+     * @return the appendable that was given.
+     * @throws IOException if appending fails.
+     * @see LocaleText#substitute(Map)
+     */
+    @NotNull
+    public <A extends Appendable> A substituteTo(
+            @NotNull A out,
+            @NotNull Map<@NotNull String, @Nullable Object> substitutions
+    ) throws IOException {
+        validateSubstitutions(substitutions);
+        getTemplate().substituteTo(out, SubstitutionValues.of(substitutions), locale);
+        return out;
+    }
+
+    /**
+     * Substitute named values in the locale text, appending the result.
+     *
+     * @param out           where to append the substituted locale text.
+     * @param substitutions the values to substitute.
+     * @return the string builder that was given.
+     * @see LocaleText#substitute(Map)
+     * @see LocaleText#threadLocalBuilder()
+     */
+    @NotNull
+    public StringBuilder substituteTo(
+            @NotNull StringBuilder out,
+            @NotNull Map<@NotNull String, @Nullable Object> substitutions
+    ) {
+        validateSubstitutions(substitutions);
+        getTemplate().substituteTo(out, SubstitutionValues.of(substitutions), locale);
+        return out;
+    }
+
+    /**
+     * Substitute named values in the locale text, putting the result into a buffer.
+     *
+     * @param out           where to put the substituted locale text.
+     * @param substitutions the values to substitute.
+     * @return the buffer that was given.
+     * @throws java.nio.BufferOverflowException if there isn't enough room in the buffer.
+     * @see LocaleText#substitute(Map)
+     */
+    @NotNull
+    public CharBuffer substituteTo(
+            @NotNull CharBuffer out,
+            @NotNull Map<@NotNull String, @Nullable Object> substitutions
+    ) {
+        validateSubstitutions(substitutions);
+        return substituteTo(out, SubstitutionValues.of(substitutions));
+    }
+
+    /**
+     * Substitute named values in the locale text, putting the result into a buffer encoded as UTF-8.
+     *
+     * @param out           where to put the substituted locale text.
+     * @param substitutions the values to substitute.
+     * @return the buffer that was given.
+     * @throws java.nio.BufferOverflowException if there isn't enough room in the buffer.
+     * @see LocaleText#substitute(Map)
+     */
+    @NotNull
+    public ByteBuffer substituteTo(
+            @NotNull ByteBuffer out,
+            @NotNull Map<@NotNull String, @Nullable Object> substitutions
+    ) {
+        validateSubstitutions(substitutions);
+        getTemplate().substituteTo(out, SubstitutionValues.of(substitutions), locale);
+        return out;
+    }
+
+    /**
+     * Substitute values in the locale text.
+     * <p>
+     * The substitution keys were already validated, so this is faster than substituting with a map when the same
+     * locale text is substituted repeatedly. They're only validated again if the global substitutions change, and
+     * clashing with a global key throws an {@link IllegalArgumentException}, like substituting with a map does.
+     *
+     * @param substitutions the values to substitute.
+     * @return the substituted locale text.
+     * @see LocaleText#substitute(Map)
+     */
+    @NotNull
+    public String substitute(@NotNull Substitutions substitutions) {
+        return getTemplate().substitute(substitutions.asValues(), locale);
+    }
+
+    /**
+     * Substitute values in the locale text, appending the result.
+     *
+     * @see LocaleText#substituteTo(Appendable, Map)
+     * @see LocaleText#substitute(Substitutions)
+     */
+    @NotNull
+    public <A extends Appendable> A substituteTo(@NotNull A out, @NotNull Substitutions substitutions) throws IOException {
+        getTemplate().substituteTo(out, substitutions.asValues(), locale);
+        return out;
+    }
+
+    /**
+     * Substitute values in the locale text, appending the result.
+     *
+     * @see LocaleText#substituteTo(StringBuilder, Map)
+     * @see LocaleText#substitute(Substitutions)
+     */
+    @NotNull
+    public StringBuilder substituteTo(@NotNull StringBuilder out, @NotNull Substitutions substitutions) {
+        getTemplate().substituteTo(out, substitutions.asValues(), locale);
+        return out;
+    }
+
+    /**
+     * Substitute values in the locale text, putting the result into a buffer.
+     *
+     * @see LocaleText#substituteTo(CharBuffer, Map)
+     * @see LocaleText#substitute(Substitutions)
+     */
+    @NotNull
+    public CharBuffer substituteTo(@NotNull CharBuffer out, @NotNull Substitutions substitutions) {
+        return substituteTo(out, substitutions.asValues());
+    }
+
+    /**
+     * Substitute values in the locale text, putting the result into a buffer encoded as UTF-8.
+     *
+     * @see LocaleText#substituteTo(ByteBuffer, Map)
+     * @see LocaleText#substitute(Substitutions)
+     */
+    @NotNull
+    public ByteBuffer substituteTo(@NotNull ByteBuffer out, @NotNull Substitutions substitutions) {
+        getTemplate().substituteTo(out, substitutions.asValues(), locale);
+        return out;
+    }
+
+    /**
+     * Substitute named values in the locale text, visiting the result as styled spans instead of a string with
+     * legacy formatting codes.
+     *
+     * @param visitor       what to visit the spans of substituted locale text with.
+     * @param substitutions the values to substitute.
+     * @return the visitor that was given.
+     * @see LocaleText#substitute(Map)
+     * @see BungeeComponentBuilder
+     * @see JsonChatBuilder
+     */
+    @NotNull
+    public <V extends TextSpanVisitor> V substituteSpans(
+            @NotNull V visitor,
+            @NotNull Map<@NotNull String, @Nullable Object> substitutions
+    ) {
+        validateSubstitutions(substitutions);
+        getTemplate().substituteSpans(visitor, SubstitutionValues.of(substitutions), locale);
+        return visitor;
+    }
+
+    /**
+     * Substitute values in the locale text, visiting the result as styled spans.
+     *
+     * @see LocaleText#substituteSpans(TextSpanVisitor, Map)
+     * @see LocaleText#substitute(Substitutions)
+     */
+    @NotNull
+    public <V extends TextSpanVisitor> V substituteSpans(@NotNull V visitor, @NotNull Substitutions substitutions) {
+        getTemplate().substituteSpans(visitor, substitutions.asValues(), locale);
+        return visitor;
+    }
+
+    @NotNull
+    private CharBuffer substituteTo(@NotNull CharBuffer out, @NotNull SubstitutionValues values) {
+        try {
+            getTemplate().substituteTo((Appendable) out, values, locale);
+        } catch (IOException e) {
+            // CharBuffers don't throw IOExceptions
+            throw new IllegalStateException(e);
+        }
+        return out;
+    }
+
+    /**
+     * Gets an empty string builder that is reused by the current thread.
+     * <p>
+     * Useful for substituting multiple locale texts, e.g. lines of a UI, into one string without creating
+     * intermediate strings. The builder is cleared every time this is called on the same thread, so it must not be
+     * kept after it's been used.
+     *
+     * @return the current thread's string builder, cleared.
+     * @see LocaleText#substituteTo(StringBuilder, Map)
+     */
+    @NotNull
+    public static StringBuilder threadLocalBuilder() {
+        StringBuilder builder = threadLocalBuilder.get();
+        if (builder.capacity() > MAX_THREAD_LOCAL_BUILDER_CAPACITY) {
+            // Don't keep large builders around
+            builder = new StringBuilder();
+            threadLocalBuilder.set(builder);
+        } else {
+            builder.setLength(0);
+        }
+
+        return builder;
+    }
+
+    @NotNull
+    LocaleTextTemplate getTemplate() {
+        LocaleTextTemplate template = this.template;
+        if (template == null || template.getGlobals() != GlobalSubstitutions.get()) {
+            // Compiling more than once on different threads is harmless
+            template = stringPool != null
+                    ? stringPool.getTemplate(textId, locale)
+                    : LocaleTextTemplate.compile(text, locale);
+            this.template = template;
+        }
+
+        return template;
     }
 
     /**
@@ -93,6 +356,11 @@ public class LocaleText {
      */
     @NotNull
     public String substitute(Object... substitutionPairs) {
+        return substitute(getSubstitutions(substitutionPairs));
+    }
+
+    @NotNull
+    static Map<String, Object> getSubstitutions(Object... substitutionPairs) {
         if (substitutionPairs == null) {
             throw new IllegalArgumentException("substitutionPairs cannot be null");
         } else if (substitutionPairs.length % 2 != 0) {
@@ -111,80 +379,21 @@ public class LocaleText {
             substitutions.put((String) key, value);
         }
 
-        return substitute(substitutions);
-    }
-
-    // region substituteText()
-
-    private static Map<String, String> globalSubstitutions = new HashMap<>();
-
-    // region Global Substitutions
-    static {
-        globalSubstitutions.put("$", "$");
-        globalSubstitutions.put("dark_red", "\u00A74");
-        globalSubstitutions.put("red", "\u00A7c");
-        globalSubstitutions.put("gold", "\u00A76");
-        globalSubstitutions.put("yellow", "\u00A7e");
-        globalSubstitutions.put("dark_green", "\u00A72");
-        globalSubstitutions.put("green", "\u00A7a");
-        globalSubstitutions.put("aqua", "\u00A7b");
-        globalSubstitutions.put("dark_aqua", "\u00A73");
-        globalSubstitutions.put("dark_blue", "\u00A71");
-        globalSubstitutions.put("blue", "\u00A79");
-        globalSubstitutions.put("light_purple", "\u00A7d");
-        globalSubstitutions.put("dark_purple", "\u00A75");
-        globalSubstitutions.put("white", "\u00A7f");
-        globalSubstitutions.put("gray", "\u00A77");
-        globalSubstitutions.put("dark_gray", "\u00A78");
-        globalSubstitutions.put("black", "\u00A70");
-        globalSubstitutions.put("reset", "\u00A7r");
-        globalSubstitutions.put("bold", "\u00A7l");
-        globalSubstitutions.put("italic", "\u00A7o");
-        globalSubstitutions.put("underline", "\u00A7n");
-        globalSubstitutions.put("strike", "\u00A7m");
-        globalSubstitutions.put("obfuscate", "\u00A7k");
+        return substitutions;
     }
-    // endregion
-
-    private static Pattern keyPattern = Pattern.compile("[a-zA-Z_]\\w*");
-    private static Pattern subPattern = Pattern.compile("\\$(?:(\\$|\\w+)|\\{\\s*(\\w+)\\s*}|)|[^$]*");
 
-    @NotNull
-    static String substituteText(@NotNull String text, @NotNull Map<@NotNull String, @Nullable Object> substitutions) {
-        // Validate keys
-        for (String key : substitutions.keySet()) {
-            if (!keyPattern.matcher(key).matches()) {
-                throw new IllegalArgumentException("Invalid substitution key: '" + key + "'");
-            }
+    // region substitution
 
-            if (globalSubstitutions.containsKey(key)) {
-                throw new IllegalArgumentException("Invalid substitution key: '" + key + "' clashes with global key");
-            }
-        }
-
-        // Substitute
-        Matcher matcher = subPattern.matcher(text);
-        StringBuilder result = new StringBuilder();
-        while (matcher.find()) {
-            String matchedKey = matcher.group(1);
-            if (matchedKey == null) {
-                matchedKey = matcher.group(2);
-            }
+    @Nullable
+    static String getGlobalSubstitution(@NotNull String key) {
+        return GlobalSubstitutions.get().getSubstitution(key);
+    }
 
-            if (matchedKey != null) {
-                if (substitutions.containsKey(matchedKey)) {
-                    result.append(substitutions.get(matchedKey));
-                } else if (globalSubstitutions.containsKey(matchedKey)) {
-                    result.append(globalSubstitutions.get(matchedKey));
-                } else {
-                    result.append(matcher.group());
-                }
-            } else {
-                result.append(matcher.group());
-            }
+    static void validateSubstitutions(@NotNull Map<@NotNull String, @Nullable Object> substitutions) {
+        GlobalSubstitutions globals = GlobalSubstitutions.get();
+        for (String key : substitutions.keySet()) {
+            globals.validateKey(key);
         }
-
-        return result.toString();
     }
 
     // endregion
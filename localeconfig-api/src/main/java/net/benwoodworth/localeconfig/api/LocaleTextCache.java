@@ -0,0 +1,280 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of substituted locale text, for text that is substituted repeatedly with the same values.
+ * e.g. tab list headers, sidebar lines, etc.
+ * <p>
+ * Substituted text is cached by locale text and substitution values, so substitution values must have proper
+ * {@code equals()} and {@code hashCode()} implementations, and must not be changed after being substituted.
+ * <p>
+ * The cache is safe to use from multiple threads. Entries are split between independently locked segments, and
+ * each segment evicts its least recently used entries.
+ *
+ * <p>
+ * Usage:
+ * <pre>
+ *     LocaleTextCache cache = new LocaleTextCache(1000);
+ *     ...
+ *     String text = cache.substitute(localeText, "player", playerName);
+ * </pre>
+ */
+public final class LocaleTextCache {
+    private static final int SEGMENT_COUNT = 16;
+
+    private final Segment[] segments;
+    private final long expireAfterWriteNanos;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Creates a cache whose entries don't expire.
+     *
+     * @param maximumSize the maximum number of substituted texts to cache.
+     */
+    public LocaleTextCache(int maximumSize) {
+        this(maximumSize, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Creates a cache whose entries expire after a fixed amount of time.
+     *
+     * @param maximumSize      the maximum number of substituted texts to cache.
+     * @param expireAfterWrite how long substituted texts are cached for, or 0 to cache them until they're evicted.
+     * @param unit             the unit of expireAfterWrite.
+     */
+    public LocaleTextCache(int maximumSize, long expireAfterWrite, @NotNull TimeUnit unit) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+        if (expireAfterWrite < 0) {
+            throw new IllegalArgumentException("expireAfterWrite must not be negative");
+        }
+
+        this.expireAfterWriteNanos = unit.toNanos(expireAfterWrite);
+
+        int segmentCount = Math.min(SEGMENT_COUNT, maximumSize);
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            int segmentSize = maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0);
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    /**
+     * Substitutes named values in the locale text, or gets the cached result.
+     *
+     * @see LocaleText#substitute(Map)
+     */
+    @NotNull
+    public String substitute(@NotNull LocaleText localeText, @NotNull Map<@NotNull String, @Nullable Object> substitutions) {
+        CacheKey key = new CacheKey(localeText, new HashMap<>(substitutions));
+
+        String result = get(key);
+        if (result == null) {
+            GlobalSubstitutions globals = GlobalSubstitutions.get();
+            result = localeText.substitute(substitutions);
+            put(key, result, globals);
+        }
+
+        return result;
+    }
+
+    /**
+     * Substitutes named values in the locale text, or gets the cached result.
+     *
+     * @see LocaleText#substitute(Object...)
+     */
+    @NotNull
+    public String substitute(@NotNull LocaleText localeText, Object... substitutionPairs) {
+        return substitute(localeText, LocaleText.getSubstitutions(substitutionPairs));
+    }
+
+    /**
+     * Substitutes values in the locale text, or gets the cached result.
+     *
+     * @see LocaleText#substitute(Substitutions)
+     */
+    @NotNull
+    public String substitute(@NotNull LocaleText localeText, @NotNull Substitutions substitutions) {
+        Object[] values = substitutions.getValues();
+
+        Object[] arguments = new Object[values.length + 1];
+        arguments[0] = substitutions.getKeys();
+        System.arraycopy(values, 0, arguments, 1, values.length);
+        CacheKey key = new CacheKey(localeText, Arrays.asList(arguments));
+
+        String result = get(key);
+        if (result == null) {
+            GlobalSubstitutions globals = GlobalSubstitutions.get();
+            result = localeText.substitute(substitutions);
+            put(key, result, globals);
+        }
+
+        return result;
+    }
+
+    @Nullable
+    private String get(@NotNull CacheKey key) {
+        Segment segment = getSegment(key);
+
+        CacheEntry entry;
+        synchronized (segment) {
+            entry = segment.get(key);
+            if (entry != null && entry.globals != GlobalSubstitutions.get()) {
+                // Substituted with global substitutions that have since changed
+                segment.remove(key);
+                entry = null;
+            } else if (entry != null && expireAfterWriteNanos != 0 && System.nanoTime() - entry.writeTime >= expireAfterWriteNanos) {
+                segment.remove(key);
+                evictionCount.increment();
+                entry = null;
+            }
+        }
+
+        if (entry == null) {
+            missCount.increment();
+            return null;
+        }
+
+        hitCount.increment();
+        return entry.text;
+    }
+
+    private void put(@NotNull CacheKey key, @NotNull String text, @NotNull GlobalSubstitutions globals) {
+        Segment segment = getSegment(key);
+        CacheEntry entry = new CacheEntry(text, globals, expireAfterWriteNanos == 0 ? 0 : System.nanoTime());
+
+        synchronized (segment) {
+            segment.put(key, entry);
+        }
+    }
+
+    @NotNull
+    private Segment getSegment(@NotNull CacheKey key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return segments[(hash & Integer.MAX_VALUE) % segments.length];
+    }
+
+    /**
+     * Removes all cached texts.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * @return the number of cached texts.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of times a cached text was used.
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return the number of times a text had to be substituted.
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * @return the number of cached texts that were removed to make room, or because they expired.
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    @Override
+    @NotNull
+    public String toString() {
+        return "LocaleTextCache(size=" + size() + ", hitCount=" + getHitCount() + ", missCount=" + getMissCount() +
+                ", evictionCount=" + getEvictionCount() + ")";
+    }
+
+    private final class Segment extends LinkedHashMap<CacheKey, CacheEntry> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maximumSize;
+
+        Segment(int maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+            if (size() > maximumSize) {
+                evictionCount.increment();
+                return true;
+            }
+
+            return false;
+        }
+    }
+
+    private static final class CacheKey {
+        private final LocaleText localeText;
+        private final Object arguments;
+        private final int hashCode;
+
+        CacheKey(@NotNull LocaleText localeText, @NotNull Object arguments) {
+            this.localeText = localeText;
+            this.arguments = arguments;
+            this.hashCode = 31 * localeText.hashCode() + arguments.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof CacheKey)) return false;
+
+            CacheKey cacheKey = (CacheKey) obj;
+            return hashCode == cacheKey.hashCode &&
+                    localeText.equals(cacheKey.localeText) &&
+                    arguments.equals(cacheKey.arguments);
+        }
+    }
+
+    private static final class CacheEntry {
+        final String text;
+        final GlobalSubstitutions globals;
+        final long writeTime;
+
+        CacheEntry(@NotNull String text, @NotNull GlobalSubstitutions globals, long writeTime) {
+            this.text = text;
+            this.globals = globals;
+            this.writeTime = writeTime;
+        }
+    }
+}
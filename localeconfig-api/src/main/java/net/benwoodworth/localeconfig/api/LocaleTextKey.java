@@ -0,0 +1,115 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A parsed locale text key, e.g. "namespace:locale.text.key".
+ * <p>
+ * Locale text keys can be kept in static fields and reused, so looking up locale text doesn't
+ * need to parse and hash the key every time.
+ *
+ * @see LocaleApi#key(String)
+ */
+public final class LocaleTextKey {
+    @Nullable
+    private final String namespace;
+
+    @NotNull
+    private final String key;
+
+    // The slot of this key in the most recently used key index
+    private volatile Binding binding = Binding.UNBOUND;
+
+    private LocaleTextKey(@Nullable String namespace, @NotNull String key) {
+        this.namespace = namespace;
+        this.key = key;
+    }
+
+    @NotNull
+    static LocaleTextKey parse(@NotNull String localeTextKey) {
+        int colonIndex = getNamespaceSeparatorIndex(localeTextKey);
+        if (colonIndex == -1) {
+            return new LocaleTextKey(null, localeTextKey);
+        } else {
+            return new LocaleTextKey(
+                    localeTextKey.substring(0, colonIndex),
+                    localeTextKey.substring(colonIndex + 1)
+            );
+        }
+    }
+
+    /**
+     * @return the index of the colon separating the namespace and key, or -1 if there is no namespace.
+     */
+    static int getNamespaceSeparatorIndex(@NotNull String localeTextKey) {
+        int colonIndex = localeTextKey.indexOf(':');
+        if (colonIndex != -1 && localeTextKey.indexOf(':', colonIndex + 1) != -1) {
+            throw new IllegalArgumentException("Locale key must have at most one colon for a namespace");
+        }
+
+        return colonIndex;
+    }
+
+    /**
+     * @return the namespace, or null if the key uses the default namespace.
+     */
+    @Nullable
+    public String getNamespace() {
+        return namespace;
+    }
+
+    /**
+     * @return the key, without the namespace.
+     */
+    @NotNull
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return the slot of this key in the key index, or -1 if the key index doesn't contain it.
+     */
+    int getSlot(@NotNull LocaleTextKeyIndex keyIndex) {
+        Binding binding = this.binding;
+        if (binding.keyIndex != keyIndex) {
+            binding = new Binding(keyIndex, keyIndex.getSlot(key));
+            this.binding = binding;
+        }
+
+        return binding.slot;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (namespace == null ? 0 : namespace.hashCode()) + key.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof LocaleTextKey)) return false;
+
+        LocaleTextKey localeTextKey = (LocaleTextKey) obj;
+        return (namespace == null ? localeTextKey.namespace == null : namespace.equals(localeTextKey.namespace)) &&
+                key.equals(localeTextKey.key);
+    }
+
+    @Override
+    @NotNull
+    public String toString() {
+        return namespace == null ? key : namespace + ":" + key;
+    }
+
+    private static final class Binding {
+        static final Binding UNBOUND = new Binding(null, -1);
+
+        final LocaleTextKeyIndex keyIndex;
+        final int slot;
+
+        Binding(LocaleTextKeyIndex keyIndex, int slot) {
+            this.keyIndex = keyIndex;
+            this.slot = slot;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Assigns each locale text key in a namespace a dense slot, so locale texts can be stored in arrays.
+ */
+final class LocaleTextKeyIndex {
+    private final Map<String, Integer> slots;
+    private final String[] keys;
+
+    private LocaleTextKeyIndex(@NotNull String[] keys) {
+        this.keys = keys;
+
+        slots = new HashMap<>(keys.length * 4 / 3 + 1);
+        for (int slot = 0; slot < keys.length; slot++) {
+            slots.put(keys[slot], slot);
+        }
+    }
+
+    @NotNull
+    static LocaleTextKeyIndex create(@NotNull Collection<Map<String, String>> locales) {
+        SortedSet<String> keys = new TreeSet<>();
+        for (Map<String, String> localeTexts : locales) {
+            if (localeTexts != null) {
+                keys.addAll(localeTexts.keySet());
+            }
+        }
+
+        return new LocaleTextKeyIndex(keys.toArray(new String[0]));
+    }
+
+    /**
+     * @param keys the keys, sorted, e.g. from a compiled bundle.
+     */
+    @NotNull
+    static LocaleTextKeyIndex create(@NotNull String[] keys) {
+        return new LocaleTextKeyIndex(keys.clone());
+    }
+
+    /**
+     * Adds keys to the end of the index, so the slots of the keys that were already indexed don't change.
+     *
+     * @return an index with the added keys, or this index if it already contains them.
+     */
+    @NotNull
+    LocaleTextKeyIndex withKeys(@NotNull Collection<String> localeTextKeys) {
+        SortedSet<String> addedKeys = new TreeSet<>();
+        for (String localeTextKey : localeTextKeys) {
+            if (!slots.containsKey(localeTextKey)) {
+                addedKeys.add(localeTextKey);
+            }
+        }
+
+        if (addedKeys.isEmpty()) {
+            return this;
+        }
+
+        String[] keys = Arrays.copyOf(this.keys, this.keys.length + addedKeys.size());
+        int slot = this.keys.length;
+        for (String addedKey : addedKeys) {
+            keys[slot++] = addedKey;
+        }
+
+        return new LocaleTextKeyIndex(keys);
+    }
+
+    /**
+     * @return the slot for the key, or -1 if the key is not indexed.
+     */
+    int getSlot(@NotNull String localeTextKey) {
+        Integer slot = slots.get(localeTextKey);
+        return slot == null ? -1 : slot;
+    }
+
+    @NotNull
+    String getKey(int slot) {
+        return keys[slot];
+    }
+
+    boolean hasSameKeys(@NotNull LocaleTextKeyIndex keyIndex) {
+        return Arrays.equals(keys, keyIndex.keys);
+    }
+
+    int size() {
+        return keys.length;
+    }
+}
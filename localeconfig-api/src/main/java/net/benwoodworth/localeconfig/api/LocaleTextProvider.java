@@ -3,136 +3,756 @@ package net.benwoodworth.localeconfig.api;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Locale;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 abstract class LocaleTextProvider {
+    // Locales are reported by clients, so resolved locales aren't kept for more than this many requested locales
+    private static final int MAX_REQUESTED_LOCALES = 256;
+
+    /**
+     * The resolved locale texts for each locale that's been looked up, reporting that locale as the texts' locale,
+     * e.g. en-US using en's texts.
+     */
+    private final ConcurrentMap<LocaleKey, ResolvedLocale> requestedLocales = new ConcurrentHashMap<>();
+
     private LocaleTextProvider() {
     }
 
     static LocaleTextProvider create(@NotNull String namespace, @NotNull Map<LocaleKey, Map<String, String>> locales) {
-        validateLocales(namespace, locales);
-        return new StandaloneLocaleTextProvider(namespace, locales);
+        return create(namespace, locales, Collections.emptyMap());
     }
 
-    private static void validateLocales(String namespace, Map<LocaleKey, Map<String, String>> locales) {
-        if (!locales.containsKey(LocaleKey.ENGLISH)) {
-            LocaleApi.logErr(namespace, "English (en) locale is missing. English is used as the default locale.");
-            return;
-        }
+    static LocaleTextProvider create(
+            @NotNull String namespace,
+            @NotNull Map<LocaleKey, Map<String, String>> locales,
+            @NotNull Map<LocaleKey, List<LocaleKey>> fallbackChains
+    ) {
+        return create(namespace, locales, fallbackChains, LocaleApi.getValidationExecutor());
+    }
+
+    /**
+     * @param validationExecutor the executor to validate the locales on, or null to not validate them.
+     */
+    static LocaleTextProvider create(
+            @NotNull String namespace,
+            @NotNull Map<LocaleKey, Map<String, String>> locales,
+            @NotNull Map<LocaleKey, List<LocaleKey>> fallbackChains,
+            @Nullable Executor validationExecutor
+    ) {
+        return new StandaloneLocaleTextProvider(namespace, locales, fallbackChains, validationExecutor);
+    }
 
-        Map<String, String> englishLocaleTexts = locales.get(LocaleKey.ENGLISH);
-        List<String> englishLocaleTextKeys = new ArrayList<>(englishLocaleTexts.keySet());
-        englishLocaleTextKeys.sort(String::compareTo);
+    /**
+     * Creates a provider from locale texts that were already added to a string pool, e.g. read from a compiled
+     * bundle, so they don't have to be put into a map for each locale first.
+     *
+     * @param localeTextIds      each locale's text ids, indexed by key slot.
+     * @param validationExecutor the executor to validate updated locales on, or null to not validate them.
+     * @param validationReport   the locales' validation report, or null if they aren't validated.
+     */
+    static LocaleTextProvider create(
+            @NotNull String namespace,
+            @NotNull LocaleTextKeyIndex keyIndex,
+            @NotNull LocaleStringPool stringPool,
+            @NotNull Map<LocaleKey, int[]> localeTextIds,
+            @NotNull Map<LocaleKey, List<LocaleKey>> fallbackChains,
+            @Nullable Executor validationExecutor,
+            @Nullable CompletableFuture<ValidationReport> validationReport
+    ) {
+        return new StandaloneLocaleTextProvider(
+                namespace, keyIndex, stringPool, localeTextIds, fallbackChains, validationExecutor, validationReport);
+    }
 
-        // Null values in english
-        for (String localeTextKey : englishLocaleTextKeys) {
-            if (englishLocaleTexts.get(localeTextKey) == null) {
-                LocaleApi.logErr(namespace, "en/" + localeTextKey + " is null");
+    /**
+     * Creates a provider that only parses each locale file the first time a lookup needs it.
+     * <p>
+     * English is parsed right away, and the keys of other locales are added to the provider's keys when they're
+     * parsed, so lookups find the same texts as a provider created from all the locales. Other locales are
+     * validated against English when they're parsed.
+     *
+     * @param localeFiles        the locale file suppliers, by locale, which return null if the file couldn't be
+     *                           loaded.
+     * @param validationExecutor the executor to validate the locales on, or null to not validate them.
+     */
+    static LocaleTextProvider createLazy(
+            @NotNull String namespace,
+            @NotNull Map<LocaleKey, Supplier<Map<String, String>>> localeFiles,
+            @NotNull Map<LocaleKey, List<LocaleKey>> fallbackChains,
+            @Nullable Executor validationExecutor
+    ) {
+        return new LazyLocaleTextProvider(namespace, localeFiles, fallbackChains, validationExecutor);
+    }
+
+    /**
+     * Gets the locales that are searched, in order, when looking up text for a locale.
+     * <p>
+     * Without a configured chain, the locale is broadened, e.g. zh-TW &rarr; zh &rarr; default.
+     * The default locale always ends the chain.
+     */
+    @NotNull
+    static List<LocaleKey> getFallbackChain(
+            @NotNull LocaleKey localeKey,
+            @NotNull Map<LocaleKey, List<LocaleKey>> fallbackChains
+    ) {
+        List<LocaleKey> chain = new ArrayList<>();
+        chain.add(localeKey);
+
+        if (!localeKey.equals(LocaleKey.DEFAULT)) {
+            List<LocaleKey> fallbackChain = fallbackChains.get(localeKey);
+            if (fallbackChain != null) {
+                chain.addAll(fallbackChain);
+            } else {
+                LocaleKey broadened = localeKey.broadened();
+                while (!broadened.equals(LocaleKey.DEFAULT)) {
+                    chain.add(broadened);
+                    broadened = broadened.broadened();
+                }
             }
+
+            chain.add(LocaleKey.DEFAULT);
         }
 
-        // Missing/extra keys in other locales
-        for (LocaleKey localeKey : locales.keySet()) {
-            if (localeKey.equals(LocaleKey.ENGLISH)) {
-                continue;
-            }
+        return chain;
+    }
 
-            Map<String, String> localeTexts = locales.get(localeKey);
-            for (String englishLocaleTextKey : englishLocaleTextKeys) {
-                if (!localeTexts.containsKey(englishLocaleTextKey)) {
-                    LocaleApi.logErr(namespace, localeKey.toString() + " is missing a key: " + englishLocaleTextKey);
-                }
+    /**
+     * Resolves a locale's texts, applying its fallback chain.
+     *
+     * @param getLocaleTexts gets a locale's text ids indexed by key slot, or null if there are none.
+     */
+    @NotNull
+    private static ResolvedLocale resolveLocale(
+            @NotNull LocaleKey localeKey,
+            @NotNull LocaleTextKeyIndex keyIndex,
+            @NotNull LocaleStringPool stringPool,
+            @NotNull Function<LocaleKey, int[]> getLocaleTexts,
+            @NotNull Map<LocaleKey, List<LocaleKey>> fallbackChains
+    ) {
+        int[] textIds = new int[keyIndex.size()];
+        Arrays.fill(textIds, LocaleStringPool.NONE);
+        for (LocaleKey fallbackKey : getFallbackChain(localeKey, fallbackChains)) {
+            int[] localeTexts = getLocaleTexts.apply(fallbackKey);
+            if (localeTexts == null) {
+                continue;
             }
 
-            List<String> localeTextKeys = new ArrayList<>(localeTexts.keySet());
-            localeTextKeys.sort(String::compareTo);
-            for (String localeTextKey : localeTextKeys) {
-                if (!englishLocaleTexts.containsKey(localeTextKey)) {
-                    LocaleApi.logErr(namespace, localeKey.toString() + " has an extra key: " + localeTextKey);
+            // Locales parsed before keys were added to the key index have fewer slots
+            int slots = Math.min(textIds.length, localeTexts.length);
+            for (int slot = 0; slot < slots; slot++) {
+                if (textIds[slot] == LocaleStringPool.NONE) {
+                    textIds[slot] = localeTexts[slot];
                 }
             }
         }
+
+        return new ResolvedLocale(localeKey, stringPool, textIds);
     }
 
+    @NotNull
     protected abstract String getNamespace();
 
+    @NotNull
+    protected abstract LocaleTextKeyIndex getKeyIndex();
+
+    /**
+     * Gets the resolved locale texts for a locale, indexed by {@link #getKeyIndex()} slot.
+     * Locales without their own resolved texts get the texts of a broader locale.
+     * <p>
+     * Resolving a locale can add keys to the key index, so the key index should be used after this.
+     */
+    @NotNull
+    protected abstract ResolvedLocale getLocaleTexts(@NotNull LocaleKey localeKey);
+
+    @NotNull
+    abstract LocaleMemoryReport getMemoryReport();
+
+    /**
+     * @return the locales' validation report, once they've been validated, or null if they aren't validated.
+     */
+    @Nullable
+    abstract CompletableFuture<ValidationReport> getValidationReport();
+
+    /**
+     * @param localeTextKey the key of the locale text, without a namespace.
+     */
     @Nullable
     LocaleText getText(@Nullable Locale locale, @NotNull String localeTextKey) {
-        String namespace;
-        String namespacedLocaleTextKey;
-        {
-            int colonIndex = localeTextKey.indexOf(':');
-            if (colonIndex == -1) {
-                namespace = getNamespace();
-                namespacedLocaleTextKey = localeTextKey;
-            } else {
-                int nextColonIndex = localeTextKey.indexOf(':', colonIndex + 1);
-                if (nextColonIndex != -1) {
-                    throw new IllegalArgumentException("Locale key must have at most one colon for a namespace");
-                }
+        return getText(LocaleKey.get(locale), localeTextKey);
+    }
 
-                namespace = localeTextKey.substring(0, colonIndex);
-                namespacedLocaleTextKey = localeTextKey.substring(colonIndex + 1);
-            }
+    /**
+     * @param localeTextKey the key of the locale text, without a namespace.
+     */
+    @Nullable
+    LocaleText getText(@NotNull LocaleKey localeKey, @NotNull String localeTextKey) {
+        ResolvedLocale localeTexts = getRequestedLocaleTexts(localeKey);
+        return localeTexts.getText(getKeyIndex().getSlot(localeTextKey));
+    }
+
+    @Nullable
+    LocaleText getText(@Nullable Locale locale, @NotNull LocaleTextKey localeTextKey) {
+        return getText(LocaleKey.get(locale), localeTextKey);
+    }
+
+    @Nullable
+    LocaleText getText(@NotNull LocaleKey localeKey, @NotNull LocaleTextKey localeTextKey) {
+        ResolvedLocale localeTexts = getRequestedLocaleTexts(localeKey);
+        return localeTexts.getText(localeTextKey.getSlot(getKeyIndex()));
+    }
+
+    /**
+     * Creates a provider with updated locales, reusing the resolved locales that weren't affected by the changes.
+     *
+     * @param locales           the updated locales.
+     * @param changedLocaleKeys the locales that were added, removed, or changed.
+     */
+    @NotNull
+    abstract LocaleTextProvider update(
+            @NotNull Map<LocaleKey, Map<String, String>> locales,
+            @NotNull Set<LocaleKey> changedLocaleKeys
+    );
+
+    /**
+     * Gets the resolved locale texts for a locale, with the texts reporting it as their locale, even if they're
+     * another locale's texts.
+     */
+    @NotNull
+    private ResolvedLocale getRequestedLocaleTexts(@NotNull LocaleKey localeKey) {
+        ResolvedLocale localeTexts = requestedLocales.get(localeKey);
+        if (localeTexts != null) {
+            return localeTexts;
         }
 
-        LocaleKey localeKey = LocaleKey.get(locale);
-        do {
-            LocaleText localeText = getText(localeKey, locale, namespace, namespacedLocaleTextKey);
-            if (localeText != null) {
-                return localeText;
+        localeTexts = getLocaleTexts(localeKey);
+        if (!localeTexts.localeKey.equals(localeKey)) {
+            localeTexts = localeTexts.forLocale(localeKey);
+        }
+
+        if (requestedLocales.size() < MAX_REQUESTED_LOCALES) {
+            ResolvedLocale existing = requestedLocales.putIfAbsent(localeKey, localeTexts);
+            if (existing != null) {
+                localeTexts = existing;
             }
+        }
 
-            localeKey = localeKey.broadened();
-        } while (!localeKey.equals(LocaleKey.DEFAULT));
+        return localeTexts;
+    }
 
-        return getText(localeKey, locale, namespace, namespacedLocaleTextKey);
+    /**
+     * Keeps the requested locales of a previous provider whose resolved locales were reused, so their texts don't
+     * have to be looked up again.
+     */
+    final void reuseRequestedLocales(@NotNull LocaleTextProvider previous) {
+        for (ResolvedLocale localeTexts : previous.requestedLocales.values()) {
+            if (getLocaleTexts(localeTexts.localeKey).textIds == localeTexts.textIds) {
+                requestedLocales.put(localeTexts.localeKey, localeTexts);
+            }
+        }
     }
 
-    @Nullable
-    protected abstract LocaleText getText(
-            @NotNull LocaleKey localeKey,
-            @NotNull Locale locale,
-            @NotNull String namespace,
-            @NotNull String namespacedLocaleTextKey
-    );
+    /**
+     * A locale's texts with its fallback chain applied, so a lookup never has to search other locales.
+     * <p>
+     * Only the ids of the texts are kept. Each text is materialized the first time it's looked up, sharing its
+     * string and template with the locales that have the same text.
+     * Locales without their own texts can share another locale's text ids, e.g. en-US using en's.
+     */
+    private static final class ResolvedLocale {
+        private final LocaleKey localeKey;
+        private final Locale locale;
+        private final LocaleStringPool stringPool;
+        private final int[] textIds;
+
+        // Materialized texts, indexed by slot. Created when a text is first looked up
+        @Nullable
+        private volatile LocaleText[] localeTexts;
+
+        ResolvedLocale(@NotNull LocaleKey localeKey, @NotNull LocaleStringPool stringPool, @NotNull int[] textIds) {
+            this.localeKey = localeKey;
+            this.locale = localeKey.equals(LocaleKey.DEFAULT) ? Locale.ENGLISH : localeKey.toLocale();
+            this.stringPool = stringPool;
+            this.textIds = textIds;
+        }
+
+        /**
+         * Gets these texts for another locale, which has no texts of its own.
+         */
+        @NotNull
+        ResolvedLocale forLocale(@NotNull LocaleKey localeKey) {
+            return new ResolvedLocale(localeKey, stringPool, textIds);
+        }
+
+        /**
+         * @param slot the key's slot, which can be -1 or a slot that was added after this locale was resolved.
+         */
+        @Nullable
+        LocaleText getText(int slot) {
+            if (slot == -1 || slot >= textIds.length) {
+                return null;
+            }
+
+            int textId = textIds[slot];
+            if (textId == LocaleStringPool.NONE) {
+                return null;
+            }
+
+            // If two threads materialize the same text, one of them is kept
+            LocaleText[] localeTexts = this.localeTexts;
+            if (localeTexts == null) {
+                localeTexts = new LocaleText[textIds.length];
+                this.localeTexts = localeTexts;
+            }
+
+            LocaleText localeText = localeTexts[slot];
+            if (localeText == null) {
+                localeText = new LocaleText(locale, stringPool, textId);
+                localeTexts[slot] = localeText;
+            }
+
+            return localeText;
+        }
+    }
 
     private static class StandaloneLocaleTextProvider extends LocaleTextProvider {
-        private String namespace;
-        private Map<LocaleKey, Map<String, String>> locales;
+        private final String namespace;
+        private final Map<LocaleKey, List<LocaleKey>> fallbackChains;
+        private final LocaleTextKeyIndex keyIndex;
+
+        /**
+         * Locale texts with their fallback chains already applied, so a lookup never has to search other locales.
+         * Always contains {@link LocaleKey#DEFAULT}.
+         */
+        private final Map<LocaleKey, ResolvedLocale> resolvedLocales = new HashMap<>();
+
+        // Stores the texts of all the locales, and is kept by updates until replaced texts would double its size
+        private final LocaleStringPool stringPool;
+        private final int compactTextCount;
 
-        StandaloneLocaleTextProvider(@NotNull String namespace, Map<LocaleKey, Map<String, String>> locales) {
+        // Each locale's text ids, by key slot
+        private final Map<LocaleKey, int[]> localeTextIds = new HashMap<>();
+
+        @Nullable
+        private final Executor validationExecutor;
+        @Nullable
+        private final CompletableFuture<ValidationReport> validationReport;
+
+        StandaloneLocaleTextProvider(
+                @NotNull String namespace,
+                @NotNull Map<LocaleKey, Map<String, String>> locales,
+                @NotNull Map<LocaleKey, List<LocaleKey>> fallbackChains,
+                @Nullable Executor validationExecutor
+        ) {
+            this(namespace, locales, fallbackChains, validationExecutor, null, Collections.emptySet());
+        }
+
+        StandaloneLocaleTextProvider(
+                @NotNull String namespace,
+                @NotNull LocaleTextKeyIndex keyIndex,
+                @NotNull LocaleStringPool stringPool,
+                @NotNull Map<LocaleKey, int[]> localeTextIds,
+                @NotNull Map<LocaleKey, List<LocaleKey>> fallbackChains,
+                @Nullable Executor validationExecutor,
+                @Nullable CompletableFuture<ValidationReport> validationReport
+        ) {
             this.namespace = namespace;
-            this.locales = locales;
+            this.fallbackChains = fallbackChains;
+            this.validationExecutor = validationExecutor;
+            this.validationReport = validationReport;
+
+            this.keyIndex = keyIndex;
+            this.stringPool = stringPool;
+            this.localeTextIds.putAll(localeTextIds);
+            compactTextCount = stringPool.getDistinctTextCount();
+
+            resolveLocales(localeTextIds.keySet(), null, Collections.emptySet());
+        }
+
+        private StandaloneLocaleTextProvider(
+                @NotNull String namespace,
+                @NotNull Map<LocaleKey, Map<String, String>> locales,
+                @NotNull Map<LocaleKey, List<LocaleKey>> fallbackChains,
+                @Nullable Executor validationExecutor,
+                @Nullable StandaloneLocaleTextProvider previous,
+                @NotNull Set<LocaleKey> changedLocaleKeys
+        ) {
+            this.namespace = namespace;
+            this.fallbackChains = fallbackChains;
+
+            // Validated in the background, so loading doesn't wait for it
+            this.validationExecutor = validationExecutor;
+            validationReport = validationExecutor == null
+                    ? null
+                    : CompletableFuture.supplyAsync(() -> LocaleValidator.validate(namespace, locales), validationExecutor);
+
+            LocaleTextKeyIndex keyIndex = LocaleTextKeyIndex.create(locales.values());
+
+            // Text ids and resolved locales can only be reused if their slots haven't changed
+            boolean reusePrevious = previous != null &&
+                    keyIndex.hasSameKeys(previous.keyIndex) &&
+                    previous.stringPool.getDistinctTextCount() <= 2 * previous.compactTextCount;
+
+            if (reusePrevious) {
+                this.keyIndex = previous.keyIndex;
+                stringPool = previous.stringPool;
+            } else {
+                this.keyIndex = keyIndex;
+                stringPool = new LocaleStringPool();
+            }
+
+            // Locales can share a map, like English and the default locale
+            Map<Map<String, String>, int[]> textIdsByMap = new IdentityHashMap<>();
+            for (Map.Entry<LocaleKey, Map<String, String>> locale : locales.entrySet()) {
+                LocaleKey localeKey = locale.getKey();
+                if (locale.getValue() == null) {
+                    continue;
+                }
+
+                int[] textIds = null;
+                if (reusePrevious && !changedLocaleKeys.contains(localeKey)) {
+                    textIds = previous.localeTextIds.get(localeKey);
+                }
+                if (textIds == null) {
+                    textIds = textIdsByMap.computeIfAbsent(locale.getValue(),
+                            texts -> stringPool.addTexts(texts, this.keyIndex));
+                }
+
+                localeTextIds.put(localeKey, textIds);
+            }
+
+            compactTextCount = reusePrevious ? previous.compactTextCount : stringPool.getDistinctTextCount();
+
+            resolveLocales(locales.keySet(), reusePrevious ? previous : null, changedLocaleKeys);
+        }
+
+        /**
+         * Resolves the locales, the locales with fallback chains, and the default locale.
+         *
+         * @param previous the provider to reuse the resolved locales of, if their fallback chains didn't change.
+         */
+        private void resolveLocales(
+                @NotNull Set<LocaleKey> locales,
+                @Nullable StandaloneLocaleTextProvider previous,
+                @NotNull Set<LocaleKey> changedLocaleKeys
+        ) {
+            Set<LocaleKey> localeKeys = new HashSet<>(locales);
+            localeKeys.addAll(fallbackChains.keySet());
+            localeKeys.add(LocaleKey.DEFAULT);
+
+            for (LocaleKey localeKey : localeKeys) {
+                // Only the locales whose fallback chains changed are resolved again
+                ResolvedLocale localeTexts = null;
+                List<LocaleKey> fallbackChain = getFallbackChain(localeKey, fallbackChains);
+                if (previous != null && Collections.disjoint(fallbackChain, changedLocaleKeys)) {
+                    localeTexts = previous.resolvedLocales.get(localeKey);
+                }
+                if (localeTexts == null) {
+                    localeTexts = resolveLocale(localeKey, keyIndex, stringPool, localeTextIds::get, fallbackChains);
+                }
+
+                resolvedLocales.put(localeKey, localeTexts);
+            }
+
+            if (previous != null) {
+                reuseRequestedLocales(previous);
+            }
+        }
+
+        @Override
+        @NotNull
+        LocaleTextProvider update(
+                @NotNull Map<LocaleKey, Map<String, String>> locales,
+                @NotNull Set<LocaleKey> changedLocaleKeys
+        ) {
+            return new StandaloneLocaleTextProvider(
+                    namespace, locales, fallbackChains, validationExecutor, this, changedLocaleKeys);
         }
 
         @Override
+        @Nullable
+        CompletableFuture<ValidationReport> getValidationReport() {
+            return validationReport;
+        }
+
+        @Override
+        @NotNull
+        LocaleMemoryReport getMemoryReport() {
+            return new LocaleMemoryReport(namespace, resolvedLocales.size(), keyIndex.size(), stringPool);
+        }
+
+        @Override
+        @NotNull
         protected String getNamespace() {
             return namespace;
         }
 
         @Override
+        @NotNull
+        protected LocaleTextKeyIndex getKeyIndex() {
+            return keyIndex;
+        }
+
+        @Override
+        @NotNull
+        protected ResolvedLocale getLocaleTexts(@NotNull LocaleKey localeKey) {
+            ResolvedLocale localeTexts = resolvedLocales.get(localeKey);
+            while (localeTexts == null) {
+                localeKey = localeKey.broadened();
+                localeTexts = resolvedLocales.get(localeKey);
+            }
+
+            return localeTexts;
+        }
+    }
+
+    private static class LazyLocaleTextProvider extends LocaleTextProvider {
+        private final String namespace;
+        private final Map<LocaleKey, List<LocaleKey>> fallbackChains;
+
+        // Starts with English's keys, and is replaced when a parsed locale has keys English doesn't
+        private volatile LocaleTextKeyIndex keyIndex;
+
+        private final Map<LocaleKey, Supplier<Map<String, String>>> localeFiles;
+
+        // Locales are validated in the background as they're parsed. English is kept to validate them against
         @Nullable
-        protected LocaleText getText(
-                @NotNull LocaleKey localeKey,
-                @NotNull Locale locale,
+        private final Executor validationExecutor;
+        @Nullable
+        private final Map<String, String> englishLocaleTexts;
+        @Nullable
+        private final CompletableFuture<List<String>> englishValidation;
+        private final ConcurrentMap<LocaleKey, CompletableFuture<ValidationReport.LocaleIssues>> localeValidations =
+                new ConcurrentHashMap<>();
+
+        /**
+         * The locales with resolved texts. Other locales are broadened until they're in this set.
+         */
+        private final Set<LocaleKey> localeKeys;
+
+        /**
+         * Parsed locale files, and resolved locales, by locale. Each is computed by the first thread to need it,
+         * while other threads needing it wait for that thread to finish, so each file is only parsed once.
+         */
+        private final ConcurrentMap<LocaleKey, FutureTask<int[]>> parsedLocales = new ConcurrentHashMap<>();
+        private final ConcurrentMap<LocaleKey, FutureTask<ResolvedLocale>> resolvedLocales = new ConcurrentHashMap<>();
+
+        // Stores the texts of the locales, as they're parsed
+        private final LocaleStringPool stringPool = new LocaleStringPool();
+
+        LazyLocaleTextProvider(
                 @NotNull String namespace,
-                @NotNull String namespacedLocaleTextKey
+                @NotNull Map<LocaleKey, Supplier<Map<String, String>>> localeFiles,
+                @NotNull Map<LocaleKey, List<LocaleKey>> fallbackChains,
+                @Nullable Executor validationExecutor
+        ) {
+            this.namespace = namespace;
+            this.fallbackChains = fallbackChains;
+            this.localeFiles = new HashMap<>(localeFiles);
+            this.validationExecutor = validationExecutor;
+
+            // Null if English is missing, in which case other locales can't be validated
+            Supplier<Map<String, String>> englishLocaleFile = localeFiles.get(LocaleKey.ENGLISH);
+            Map<String, String> englishLocaleTexts = englishLocaleFile == null ? null : englishLocaleFile.get();
+
+            if (validationExecutor != null) {
+                this.englishLocaleTexts = englishLocaleTexts;
+                englishValidation = CompletableFuture.supplyAsync(
+                        () -> LocaleValidator.validateEnglish(namespace, englishLocaleTexts), validationExecutor);
+            } else {
+                this.englishLocaleTexts = null;
+                englishValidation = null;
+            }
+
+            LocaleTextKeyIndex keyIndex = LocaleTextKeyIndex.create(englishLocaleTexts == null
+                    ? Collections.emptySet()
+                    : Collections.singleton(englishLocaleTexts));
+            this.keyIndex = keyIndex;
+
+            if (englishLocaleTexts != null) {
+                int[] englishTextIds = stringPool.addTexts(englishLocaleTexts, keyIndex);
+                getOrCompute(parsedLocales, LocaleKey.ENGLISH, () -> englishTextIds);
+            }
+
+            localeKeys = new HashSet<>(localeFiles.keySet());
+            localeKeys.addAll(fallbackChains.keySet());
+            localeKeys.add(LocaleKey.DEFAULT);
+        }
+
+        /**
+         * Gets a locale's text ids, indexed by key slot, parsing the locale file if it hasn't been parsed yet.
+         */
+        @Nullable
+        private int[] getParsedLocale(@NotNull LocaleKey localeKey) {
+            if (localeKey.equals(LocaleKey.DEFAULT)) {
+                localeKey = LocaleKey.ENGLISH;
+            }
+
+            Supplier<Map<String, String>> localeFile = localeFiles.get(localeKey);
+            if (localeFile == null) {
+                return null;
+            }
+
+            LocaleKey parsedLocaleKey = localeKey;
+            return getOrCompute(parsedLocales, localeKey, () -> {
+                Map<String, String> localeTexts = localeFile.get();
+                if (localeTexts == null) {
+                    return null;
+                }
+
+                if (validationExecutor != null && englishLocaleTexts != null) {
+                    localeValidations.put(parsedLocaleKey, CompletableFuture.supplyAsync(
+                            () -> LocaleValidator.validate(namespace, parsedLocaleKey, localeTexts, englishLocaleTexts),
+                            validationExecutor
+                    ));
+                }
+                return stringPool.addTexts(localeTexts, addKeys(localeTexts.keySet()));
+            });
+        }
+
+        /**
+         * Adds keys to the key index. Slots of keys that were already indexed don't change.
+         *
+         * @return the key index, with the keys.
+         */
+        @NotNull
+        private synchronized LocaleTextKeyIndex addKeys(@NotNull Set<String> localeTextKeys) {
+            LocaleTextKeyIndex keyIndex = this.keyIndex.withKeys(localeTextKeys);
+            this.keyIndex = keyIndex;
+            return keyIndex;
+        }
+
+        /**
+         * Gets a value, computing it if no other thread has. If another thread is computing it, this waits for it.
+         */
+        private static <T> T getOrCompute(
+                @NotNull ConcurrentMap<LocaleKey, FutureTask<T>> tasks,
+                @NotNull LocaleKey localeKey,
+                @NotNull Callable<T> compute
         ) {
-            if (getNamespace().equals(namespace)) {
-                Map<String, String> localeTextKeys = locales.get(localeKey);
-                if (localeTextKeys != null) {
-                    String text = localeTextKeys.get(namespacedLocaleTextKey);
-                    if (text != null) {
-                        return new LocaleText(locale, text);
+            FutureTask<T> task = tasks.get(localeKey);
+            if (task == null) {
+                FutureTask<T> newTask = new FutureTask<>(compute);
+                task = tasks.putIfAbsent(localeKey, newTask);
+                if (task == null) {
+                    task = newTask;
+                    task.run();
+                }
+            }
+
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    try {
+                        return task.get();
+                    } catch (InterruptedException e) {
+                        // The locale still has to be loaded, so finish waiting
+                        interrupted = true;
+                    } catch (ExecutionException e) {
+                        throw new IllegalStateException("Error loading locale " + localeKey, e.getCause());
                     }
                 }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        @NotNull
+        LocaleMemoryReport getMemoryReport() {
+            int localeCount = 0;
+            for (FutureTask<ResolvedLocale> resolvedLocale : resolvedLocales.values()) {
+                if (resolvedLocale.isDone()) {
+                    localeCount++;
+                }
+            }
+
+            return new LocaleMemoryReport(namespace, localeCount, keyIndex.size(), stringPool);
+        }
+
+        @Override
+        @NotNull
+        LocaleTextProvider update(
+                @NotNull Map<LocaleKey, Map<String, String>> locales,
+                @NotNull Set<LocaleKey> changedLocaleKeys
+        ) {
+            // Still only resolved when they're looked up, even though they've already been parsed
+            Map<LocaleKey, Supplier<Map<String, String>>> localeFiles = new HashMap<>();
+            for (Map.Entry<LocaleKey, Map<String, String>> locale : locales.entrySet()) {
+                if (!locale.getKey().equals(LocaleKey.DEFAULT)) {
+                    localeFiles.put(locale.getKey(), locale::getValue);
+                }
             }
 
-            return null;
+            return new LazyLocaleTextProvider(namespace, localeFiles, fallbackChains, validationExecutor);
+        }
+
+        /**
+         * Only includes the locales that have been parsed so far.
+         */
+        @Override
+        @Nullable
+        CompletableFuture<ValidationReport> getValidationReport() {
+            if (englishValidation == null) {
+                return null;
+            }
+
+            List<LocaleKey> localeKeys = new ArrayList<>(localeValidations.keySet());
+            localeKeys.sort(Comparator.comparing(LocaleKey::toString));
+
+            List<CompletableFuture<ValidationReport.LocaleIssues>> validations = new ArrayList<>();
+            for (LocaleKey localeKey : localeKeys) {
+                validations.add(localeValidations.get(localeKey));
+            }
+
+            return englishValidation.thenCombine(
+                    CompletableFuture.allOf(validations.toArray(new CompletableFuture<?>[0])),
+                    (nullKeys, ignored) -> {
+                        List<ValidationReport.LocaleIssues> localeIssues = new ArrayList<>();
+                        for (CompletableFuture<ValidationReport.LocaleIssues> validation : validations) {
+                            ValidationReport.LocaleIssues issues = validation.join();
+                            if (issues != null) {
+                                localeIssues.add(issues);
+                            }
+                        }
+
+                        return new ValidationReport(namespace, nullKeys, localeIssues);
+                    }
+            );
+        }
+
+        @Override
+        @NotNull
+        protected String getNamespace() {
+            return namespace;
+        }
+
+        @Override
+        @NotNull
+        protected LocaleTextKeyIndex getKeyIndex() {
+            return keyIndex;
+        }
+
+        @Override
+        @NotNull
+        protected ResolvedLocale getLocaleTexts(@NotNull LocaleKey localeKey) {
+            while (!localeKeys.contains(localeKey)) {
+                localeKey = localeKey.broadened();
+            }
+
+            LocaleKey resolvedLocaleKey = localeKey;
+            return getOrCompute(resolvedLocales, localeKey, () -> {
+                // Parsed first, so the key index has all their keys
+                List<LocaleKey> fallbackChain = getFallbackChain(resolvedLocaleKey, fallbackChains);
+                for (LocaleKey fallbackKey : fallbackChain) {
+                    getParsedLocale(fallbackKey);
+                }
+
+                return resolveLocale(resolvedLocaleKey, keyIndex, stringPool, this::getParsedLocale, fallbackChains);
+            });
         }
     }
 }
@@ -0,0 +1,147 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The loaded locale text providers, by namespace.
+ * <p>
+ * Providers are published as immutable snapshots that are replaced on every change, so lookups never lock and
+ * always see fully built providers, even from async threads.
+ */
+final class LocaleTextProviderRegistry {
+    static final String VANILLA_NAMESPACE = "minecraft";
+
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyMap(), null);
+
+    // Set once the vanilla provider has been registered, or another provider was registered with its namespace
+    private volatile boolean vanillaLoaded = false;
+
+    /**
+     * Registers a provider, replacing any provider that was registered with the same namespace.
+     *
+     * @param provider the provider to register.
+     * @param isDefault whether the provider should be used for keys without a namespace.
+     */
+    synchronized void register(@NotNull LocaleTextProvider provider, boolean isDefault) {
+        Snapshot snapshot = this.snapshot;
+
+        Map<String, LocaleTextProvider> providers = new HashMap<>(snapshot.providers);
+        providers.put(provider.getNamespace(), provider);
+
+        String defaultNamespace = isDefault ? provider.getNamespace() : snapshot.defaultNamespace;
+        this.snapshot = new Snapshot(providers, defaultNamespace);
+    }
+
+    /**
+     * Replaces a provider with an updated one, unless another provider has been registered with its namespace
+     * since, e.g. because the namespace's locales were loaded again.
+     *
+     * @param previous the provider to replace.
+     * @param provider the updated provider.
+     * @return true if the provider was replaced.
+     */
+    synchronized boolean replace(@NotNull LocaleTextProvider previous, @NotNull LocaleTextProvider provider) {
+        Snapshot snapshot = this.snapshot;
+        if (snapshot.providers.get(previous.getNamespace()) != previous) {
+            return false;
+        }
+
+        Map<String, LocaleTextProvider> providers = new HashMap<>(snapshot.providers);
+        providers.put(provider.getNamespace(), provider);
+
+        this.snapshot = new Snapshot(providers, snapshot.defaultNamespace);
+        return true;
+    }
+
+    @Nullable
+    LocaleTextProvider getProvider(@Nullable String namespace) {
+        Snapshot snapshot = this.snapshot;
+
+        if (namespace == null) {
+            if (snapshot.defaultProvider == null) {
+                throw new IllegalStateException("Locales have not been loaded. Must call LocaleApi.load() first.");
+            }
+
+            return snapshot.defaultProvider;
+        }
+
+        LocaleTextProvider provider = snapshot.providers.get(namespace);
+        if (provider == null && namespace.equals(VANILLA_NAMESPACE)) {
+            provider = loadVanillaProvider();
+        }
+
+        return provider;
+    }
+
+    @Nullable
+    LocaleText getText(@Nullable Locale locale, @NotNull String localeTextKey) {
+        return getText(LocaleKey.get(locale), localeTextKey);
+    }
+
+    @Nullable
+    LocaleText getText(@NotNull LocaleKey localeKey, @NotNull String localeTextKey) {
+        int colonIndex = LocaleTextKey.getNamespaceSeparatorIndex(localeTextKey);
+        if (colonIndex == -1) {
+            return getProvider(null).getText(localeKey, localeTextKey);
+        }
+
+        LocaleTextProvider provider = getProvider(localeTextKey.substring(0, colonIndex));
+        if (provider == null) {
+            return null;
+        }
+
+        return provider.getText(localeKey, localeTextKey.substring(colonIndex + 1));
+    }
+
+    @Nullable
+    LocaleText getText(@Nullable Locale locale, @NotNull LocaleTextKey localeTextKey) {
+        return getText(LocaleKey.get(locale), localeTextKey);
+    }
+
+    @Nullable
+    LocaleText getText(@NotNull LocaleKey localeKey, @NotNull LocaleTextKey localeTextKey) {
+        LocaleTextProvider provider = getProvider(localeTextKey.getNamespace());
+        if (provider == null) {
+            return null;
+        }
+
+        return provider.getText(localeKey, localeTextKey);
+    }
+
+    @Nullable
+    private LocaleTextProvider loadVanillaProvider() {
+        if (!vanillaLoaded) {
+            // Loaded without holding the lock, so registering providers isn't blocked while vanilla's English is
+            // parsed. The platform only loads it once, even if several threads get here.
+            LocaleTextProvider vanillaProvider = Platform.getPlatform().getVanillaProvider();
+
+            synchronized (this) {
+                // Don't replace a provider that was registered with the vanilla namespace
+                if (!vanillaLoaded && !snapshot.providers.containsKey(VANILLA_NAMESPACE)) {
+                    register(vanillaProvider, false);
+                }
+                vanillaLoaded = true;
+            }
+        }
+
+        return snapshot.providers.get(VANILLA_NAMESPACE);
+    }
+
+    private static final class Snapshot {
+        final Map<String, LocaleTextProvider> providers;
+        final String defaultNamespace;
+        final LocaleTextProvider defaultProvider;
+
+        Snapshot(@NotNull Map<String, LocaleTextProvider> providers, @Nullable String defaultNamespace) {
+            this.providers = providers;
+            this.defaultNamespace = defaultNamespace;
+            this.defaultProvider = defaultNamespace == null ? null : providers.get(defaultNamespace);
+        }
+    }
+}
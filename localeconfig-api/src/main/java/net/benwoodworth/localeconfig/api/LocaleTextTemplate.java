@@ -0,0 +1,684 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Locale text, compiled into literal text and placeholders so it can be substituted without being parsed again.
+ * <p>
+ * Global substitutions are folded into the literal text when compiling, since substitution keys can't clash
+ * with global keys.
+ */
+final class LocaleTextTemplate {
+    // Literal text before, between, and after the placeholders. Has one more element than the placeholders.
+    private final String[] literals;
+
+    private final String[] placeholderKeys;
+
+    // How each placeholder's value is formatted, or null for placeholders without a format
+    private final PlaceholderFormat[] placeholderFormats;
+
+    // The branches of each plural/select placeholder, or null for other placeholders
+    private final PlaceholderChoice[] placeholderChoices;
+
+    // The placeholders as written in the locale text, used when no value is substituted
+    private final String[] placeholderTexts;
+
+    private final int literalsLength;
+
+    // The global substitutions that were folded into the literals
+    private final GlobalSubstitutions globals;
+
+    // The plural rule of the plural placeholders, including ones in branches, or null if there are none
+    @Nullable
+    private final PluralRule pluralRule;
+
+    // The literals encoded as UTF-8, encoded when first needed
+    private volatile byte[][] literalBytes = null;
+
+    // The literals split at their formatting codes, split when first needed
+    private volatile LiteralSpans[] literalSpans = null;
+
+    // The slots of the most recently used substitution keys
+    private volatile SlotBinding slotBinding = SlotBinding.UNBOUND;
+
+    private LocaleTextTemplate(
+            @NotNull String[] literals,
+            @NotNull String[] placeholderKeys,
+            @NotNull PlaceholderFormat[] placeholderFormats,
+            @NotNull PlaceholderChoice[] placeholderChoices,
+            @NotNull String[] placeholderTexts,
+            @NotNull GlobalSubstitutions globals
+    ) {
+        this.literals = literals;
+        this.placeholderKeys = placeholderKeys;
+        this.placeholderFormats = placeholderFormats;
+        this.placeholderChoices = placeholderChoices;
+        this.placeholderTexts = placeholderTexts;
+        this.globals = globals;
+
+        PluralRule pluralRule = null;
+        for (PlaceholderChoice choice : placeholderChoices) {
+            if (choice != null && pluralRule == null) {
+                pluralRule = choice.getPluralRule();
+                for (LocaleTextTemplate branch : choice.getBranches()) {
+                    if (pluralRule == null) {
+                        pluralRule = branch.pluralRule;
+                    }
+                }
+            }
+        }
+        this.pluralRule = pluralRule;
+
+        int literalsLength = 0;
+        for (String literal : literals) {
+            literalsLength += literal.length();
+        }
+        this.literalsLength = literalsLength;
+    }
+
+    /**
+     * Compiles locale text:
+     * <ul>
+     *     <li><code>$key</code> and <code>${key}</code> are placeholders, or global substitutions.</li>
+     *     <li><code>${key,format}</code> and <code>${key,format:style}</code> are placeholders whose values are
+     *     formatted for the locale they're substituted for, e.g. <code>${coins,number}</code> or
+     *     <code>${time,date:short}</code>.</li>
+     *     <li><code>${key,plural, selector{text} ...}</code> and <code>${key,select, selector{text} ...}</code>
+     *     are placeholders that choose text based on their value. Plural selectors are plural categories, or exact
+     *     values like <code>=0</code>, and select selectors are values. There must be an <code>other</code> branch.
+     *     In plural branches, <code>#</code> is the formatted number.</li>
+     *     <li><code>$$</code> is a global substitution for <code>$</code></li>
+     *     <li>Anything else is literal text.</li>
+     * </ul>
+     */
+    @NotNull
+    static LocaleTextTemplate compile(@NotNull String text, @NotNull Locale locale) {
+        return compile(text, locale, GlobalSubstitutions.get(), null);
+    }
+
+    /**
+     * @param pluralKey the key of the enclosing plural placeholder, which <code>#</code> is substituted for.
+     */
+    @NotNull
+    private static LocaleTextTemplate compile(
+            @NotNull String text,
+            @NotNull Locale locale,
+            @NotNull GlobalSubstitutions globals,
+            @Nullable String pluralKey
+    ) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholderKeys = new ArrayList<>();
+        List<PlaceholderFormat> placeholderFormats = new ArrayList<>();
+        List<PlaceholderChoice> placeholderChoices = new ArrayList<>();
+        List<String> placeholderTexts = new ArrayList<>();
+
+        StringBuilder literal = new StringBuilder();
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            int dollarIndex = indexOfSpecialChar(text, i, pluralKey != null);
+            if (dollarIndex == -1) {
+                literal.append(text, i, length);
+                break;
+            }
+
+            literal.append(text, i, dollarIndex);
+
+            String key;
+            PlaceholderFormat format = null;
+            PlaceholderChoice choice = null;
+            int end;
+            if (text.charAt(dollarIndex) == '#') {
+                // # in a plural branch
+                key = pluralKey;
+                format = PlaceholderFormat.get("number");
+                end = dollarIndex + 1;
+            } else if (dollarIndex + 1 < length && text.charAt(dollarIndex + 1) == '$') {
+                // $$
+                key = "$";
+                end = dollarIndex + 2;
+            } else if (dollarIndex + 1 < length && isWordChar(text.charAt(dollarIndex + 1))) {
+                // $key
+                int keyEnd = skipWordChars(text, dollarIndex + 1);
+                key = text.substring(dollarIndex + 1, keyEnd);
+                end = keyEnd;
+            } else if (dollarIndex + 1 < length && text.charAt(dollarIndex + 1) == '{') {
+                // ${key} or ${key,format:style}, or a literal $ if it's malformed
+                int keyStart = skipWhitespace(text, dollarIndex + 2);
+                int keyEnd = skipWordChars(text, keyStart);
+                int close = skipWhitespace(text, keyEnd);
+
+                boolean valid = keyStart != keyEnd;
+                if (valid && close < length && text.charAt(close) == ',') {
+                    int formatStart = skipWhitespace(text, close + 1);
+                    int formatEnd = skipWordChars(text, formatStart);
+                    String formatName = text.substring(formatStart, formatEnd);
+
+                    if (formatName.equals(PlaceholderChoice.PLURAL) || formatName.equals(PlaceholderChoice.SELECT)) {
+                        boolean plural = formatName.equals(PlaceholderChoice.PLURAL);
+                        String branchPluralKey = plural ? text.substring(keyStart, keyEnd) : pluralKey;
+
+                        Map<String, LocaleTextTemplate> branches = new HashMap<>();
+                        close = compileBranches(text, formatEnd, locale, globals, branchPluralKey, branches);
+
+                        if (close != -1 && branches.containsKey(PluralRule.OTHER)) {
+                            choice = new PlaceholderChoice(branches, plural ? PluralRule.forLocale(locale) : null);
+                        } else {
+                            valid = false;
+                        }
+                    } else {
+                        if (formatEnd < length && text.charAt(formatEnd) == ':') {
+                            formatEnd = skipWordChars(text, formatEnd + 1);
+                        }
+                        close = skipWhitespace(text, formatEnd);
+
+                        format = PlaceholderFormat.get(text.substring(formatStart, formatEnd));
+                        valid = format != null;
+                    }
+                }
+
+                if (valid && close < length && text.charAt(close) == '}') {
+                    key = text.substring(keyStart, keyEnd);
+                    end = close + 1;
+                } else {
+                    key = null;
+                    format = null;
+                    choice = null;
+                    end = dollarIndex + 1;
+                }
+            } else {
+                // A literal $
+                key = null;
+                end = dollarIndex + 1;
+            }
+
+            String placeholderText = text.substring(dollarIndex, end);
+            String globalSubstitution = (key == null || format != null || choice != null) ? null : globals.getSubstitution(key);
+
+            if (globalSubstitution != null) {
+                literal.append(globalSubstitution);
+            } else if (key == null || !isValidKey(key)) {
+                literal.append(placeholderText);
+            } else {
+                literals.add(literal.toString());
+                literal.setLength(0);
+                placeholderKeys.add(key);
+                placeholderFormats.add(format);
+                placeholderChoices.add(choice);
+                placeholderTexts.add(placeholderText);
+            }
+
+            i = end;
+        }
+
+        literals.add(literal.toString());
+
+        return new LocaleTextTemplate(
+                literals.toArray(new String[0]),
+                placeholderKeys.toArray(new String[0]),
+                placeholderFormats.toArray(new PlaceholderFormat[0]),
+                placeholderChoices.toArray(new PlaceholderChoice[0]),
+                placeholderTexts.toArray(new String[0]),
+                globals
+        );
+    }
+
+    /**
+     * Compiles the branches of a plural/select placeholder, e.g. <code>, one{# item} other{# items}</code>
+     *
+     * @return the index of the closing brace of the placeholder, or -1 if the branches are malformed.
+     */
+    private static int compileBranches(
+            @NotNull String text,
+            int index,
+            @NotNull Locale locale,
+            @NotNull GlobalSubstitutions globals,
+            @Nullable String pluralKey,
+            @NotNull Map<String, LocaleTextTemplate> branches
+    ) {
+        int length = text.length();
+
+        index = skipWhitespace(text, index);
+        if (index >= length || text.charAt(index) != ',') {
+            return -1;
+        }
+
+        while (true) {
+            index = skipWhitespace(text, index + 1);
+            if (index >= length) {
+                return -1;
+            }
+            if (text.charAt(index) == '}') {
+                return index;
+            }
+
+            int selectorStart = index;
+            if (text.charAt(index) == '=') {
+                index++;
+                while (index < length && '0' <= text.charAt(index) && text.charAt(index) <= '9') {
+                    index++;
+                }
+                if (index == selectorStart + 1 || index - selectorStart > 19) {
+                    // No digits, or too many for a long
+                    return -1;
+                }
+            } else {
+                index = skipWordChars(text, index);
+                if (index == selectorStart) {
+                    return -1;
+                }
+            }
+            String selector = text.substring(selectorStart, index);
+
+            index = skipWhitespace(text, index);
+            if (index >= length || text.charAt(index) != '{') {
+                return -1;
+            }
+
+            // Find the matching close brace
+            int branchStart = index + 1;
+            int depth = 1;
+            while (depth > 0) {
+                index++;
+                if (index >= length) {
+                    return -1;
+                }
+
+                char ch = text.charAt(index);
+                if (ch == '{') {
+                    depth++;
+                } else if (ch == '}') {
+                    depth--;
+                }
+            }
+
+            branches.put(selector, compile(text.substring(branchStart, index), locale, globals, pluralKey));
+
+            // Step back so the loop skips past the branch's close brace
+            index = skipWhitespace(text, index + 1) - 1;
+        }
+    }
+
+    private static int indexOfSpecialChar(@NotNull String text, int index, boolean inPluralBranch) {
+        if (!inPluralBranch) {
+            return text.indexOf('$', index);
+        }
+
+        for (int i = index; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch == '$' || ch == '#') {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static boolean isWordChar(char ch) {
+        return ('a' <= ch && ch <= 'z') || ('A' <= ch && ch <= 'Z') || ('0' <= ch && ch <= '9') || ch == '_';
+    }
+
+    private static boolean isWhitespace(char ch) {
+        return ch == ' ' || ch == '\t' || ch == '\n' || ch == '\u000B' || ch == '\f' || ch == '\r';
+    }
+
+    private static int skipWordChars(String text, int index) {
+        while (index < text.length() && isWordChar(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int skipWhitespace(String text, int index) {
+        while (index < text.length() && isWhitespace(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Keys must start with a letter or underscore, and must only contain letters, numbers, and underscores.
+     */
+    static boolean isValidKey(@NotNull String key) {
+        if (key.isEmpty() || ('0' <= key.charAt(0) && key.charAt(0) <= '9')) {
+            return false;
+        }
+
+        for (int i = 0; i < key.length(); i++) {
+            if (!isWordChar(key.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @NotNull
+    String getPlaceholderKey(int placeholder) {
+        return placeholderKeys[placeholder];
+    }
+
+    /**
+     * Adds the keys of the placeholders, including the placeholders in plural and select branches.
+     */
+    void addPlaceholderKeys(@NotNull Set<String> keys) {
+        Collections.addAll(keys, placeholderKeys);
+        for (PlaceholderChoice choice : placeholderChoices) {
+            if (choice != null) {
+                for (LocaleTextTemplate branch : choice.getBranches()) {
+                    branch.addPlaceholderKeys(keys);
+                }
+            }
+        }
+    }
+
+    @NotNull
+    GlobalSubstitutions getGlobals() {
+        return globals;
+    }
+
+    /**
+     * @return the plural rule the template was compiled with, or null if it has no plural placeholders, in which
+     * case it's the same for every locale.
+     */
+    @Nullable
+    PluralRule getPluralRule() {
+        return pluralRule;
+    }
+
+    /**
+     * Gets the slot of each placeholder's value in substitutions with the specified keys.
+     *
+     * @return the slots, indexed by placeholder, or -1 for placeholders without a slot.
+     */
+    @NotNull
+    int[] getSlots(@NotNull SubstitutionKeys keys) {
+        SlotBinding slotBinding = this.slotBinding;
+        if (slotBinding.keys != keys) {
+            int[] slots = new int[placeholderKeys.length];
+            for (int i = 0; i < placeholderKeys.length; i++) {
+                slots[i] = keys.getSlot(placeholderKeys[i]);
+            }
+
+            slotBinding = new SlotBinding(keys, slots);
+            this.slotBinding = slotBinding;
+        }
+
+        return slotBinding.slots;
+    }
+
+    /**
+     * @param locale the locale to format values for, which can be different from the locale the text was compiled
+     *               for, e.g. en-US for text compiled for en.
+     */
+    @NotNull
+    String substitute(@NotNull SubstitutionValues values, @NotNull Locale locale) {
+        if (placeholderKeys.length == 0) {
+            return literals[0];
+        }
+
+        StringBuilder result = new StringBuilder(literalsLength + 16 * placeholderKeys.length);
+        substituteTo(result, values, locale);
+        return result.toString();
+    }
+
+    void substituteTo(@NotNull StringBuilder out, @NotNull SubstitutionValues values, @NotNull Locale locale) {
+        out.append(literals[0]);
+
+        for (int i = 0; i < placeholderKeys.length; i++) {
+            Object value = formatValue(i, values.getValue(this, i), locale);
+
+            if (value != SubstitutionValues.NO_VALUE && placeholderChoices[i] != null) {
+                placeholderChoices[i].choose(value).substituteTo(out, values, locale);
+            } else if (value != SubstitutionValues.NO_VALUE) {
+                out.append(value);
+            } else {
+                out.append(placeholderTexts[i]);
+            }
+
+            out.append(literals[i + 1]);
+        }
+    }
+
+    void substituteTo(
+            @NotNull Appendable out,
+            @NotNull SubstitutionValues values,
+            @NotNull Locale locale
+    ) throws IOException {
+        out.append(literals[0]);
+
+        for (int i = 0; i < placeholderKeys.length; i++) {
+            Object value = formatValue(i, values.getValue(this, i), locale);
+
+            if (value != SubstitutionValues.NO_VALUE && placeholderChoices[i] != null) {
+                placeholderChoices[i].choose(value).substituteTo(out, values, locale);
+            } else if (value != SubstitutionValues.NO_VALUE) {
+                out.append(toCharSequence(value));
+            } else {
+                out.append(placeholderTexts[i]);
+            }
+
+            out.append(literals[i + 1]);
+        }
+    }
+
+    void substituteTo(@NotNull ByteBuffer out, @NotNull SubstitutionValues values, @NotNull Locale locale) {
+        byte[][] literalBytes = getLiteralBytes();
+        out.put(literalBytes[0]);
+
+        for (int i = 0; i < placeholderKeys.length; i++) {
+            Object value = formatValue(i, values.getValue(this, i), locale);
+
+            if (value != SubstitutionValues.NO_VALUE && placeholderChoices[i] != null) {
+                placeholderChoices[i].choose(value).substituteTo(out, values, locale);
+            } else if (value != SubstitutionValues.NO_VALUE) {
+                putUtf8(out, toCharSequence(value));
+            } else {
+                putUtf8(out, placeholderTexts[i]);
+            }
+
+            out.put(literalBytes[i + 1]);
+        }
+    }
+
+    void substituteSpans(@NotNull TextSpanVisitor visitor, @NotNull SubstitutionValues values, @NotNull Locale locale) {
+        SpanWriter out = new SpanWriter(visitor);
+        substituteSpans(out, values, locale);
+        out.flush();
+    }
+
+    private void substituteSpans(@NotNull SpanWriter out, @NotNull SubstitutionValues values, @NotNull Locale locale) {
+        LiteralSpans[] literalSpans = getLiteralSpans();
+        literalSpans[0].writeTo(out);
+
+        for (int i = 0; i < placeholderKeys.length; i++) {
+            Object value = formatValue(i, values.getValue(this, i), locale);
+
+            if (value != SubstitutionValues.NO_VALUE && placeholderChoices[i] != null) {
+                placeholderChoices[i].choose(value).substituteSpans(out, values, locale);
+            } else if (value != SubstitutionValues.NO_VALUE) {
+                out.append(toCharSequence(value));
+            } else {
+                out.append(placeholderTexts[i]);
+            }
+
+            literalSpans[i + 1].writeTo(out);
+        }
+    }
+
+    @Nullable
+    private Object formatValue(int placeholder, @Nullable Object value, @NotNull Locale locale) {
+        PlaceholderFormat format = placeholderFormats[placeholder];
+        if (format == null || value == null || value == SubstitutionValues.NO_VALUE) {
+            return value;
+        }
+
+        String formattedValue = format.format(value, locale);
+        return formattedValue != null ? formattedValue : value;
+    }
+
+    @NotNull
+    private static CharSequence toCharSequence(@Nullable Object value) {
+        return value instanceof CharSequence ? (CharSequence) value : String.valueOf(value);
+    }
+
+    @NotNull
+    private byte[][] getLiteralBytes() {
+        byte[][] literalBytes = this.literalBytes;
+        if (literalBytes == null) {
+            literalBytes = new byte[literals.length][];
+            for (int i = 0; i < literals.length; i++) {
+                literalBytes[i] = literals[i].getBytes(StandardCharsets.UTF_8);
+            }
+
+            this.literalBytes = literalBytes;
+        }
+
+        return literalBytes;
+    }
+
+    @NotNull
+    private LiteralSpans[] getLiteralSpans() {
+        LiteralSpans[] literalSpans = this.literalSpans;
+        if (literalSpans == null) {
+            literalSpans = new LiteralSpans[literals.length];
+            for (int i = 0; i < literals.length; i++) {
+                literalSpans[i] = LiteralSpans.split(literals[i]);
+            }
+
+            this.literalSpans = literalSpans;
+        }
+
+        return literalSpans;
+    }
+
+    /**
+     * Encodes characters as UTF-8, the same as {@link String#getBytes(java.nio.charset.Charset)}.
+     *
+     * @throws java.nio.BufferOverflowException if there isn't enough room in the buffer.
+     */
+    static void putUtf8(@NotNull ByteBuffer out, @NotNull CharSequence chars) {
+        int length = chars.length();
+        for (int i = 0; i < length; i++) {
+            char ch = chars.charAt(i);
+
+            if (ch < 0x80) {
+                out.put((byte) ch);
+            } else if (ch < 0x800) {
+                out.put((byte) (0xC0 | (ch >> 6)));
+                out.put((byte) (0x80 | (ch & 0x3F)));
+            } else if (Character.isHighSurrogate(ch) && i + 1 < length && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(ch, chars.charAt(++i));
+                out.put((byte) (0xF0 | (codePoint >> 18)));
+                out.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                out.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(ch)) {
+                // Unpaired surrogates can't be encoded
+                out.put((byte) '?');
+            } else {
+                out.put((byte) (0xE0 | (ch >> 12)));
+                out.put((byte) (0x80 | ((ch >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (ch & 0x3F)));
+            }
+        }
+    }
+
+    /**
+     * A literal split into text and the formatting codes between them, e.g. <code>a&sect;cb</code> is split into
+     * <code>a</code>, <code>c</code>, and <code>b</code>.
+     */
+    private static final class LiteralSpans {
+        final String[] texts;
+        final char[] codes;
+
+        private LiteralSpans(String[] texts, char[] codes) {
+            this.texts = texts;
+            this.codes = codes;
+        }
+
+        @NotNull
+        static LiteralSpans split(@NotNull String literal) {
+            List<String> texts = new ArrayList<>();
+            StringBuilder codes = new StringBuilder();
+
+            StringBuilder text = new StringBuilder();
+            int length = literal.length();
+            for (int i = 0; i < length; i++) {
+                char ch = literal.charAt(i);
+                if (ch != '\u00A7') {
+                    text.append(ch);
+                    continue;
+                }
+
+                // Like Minecraft, unknown codes and trailing section signs are dropped
+                if (++i < length && TextStyle.applyCode(0, literal.charAt(i)) != -1) {
+                    texts.add(text.toString());
+                    codes.append(literal.charAt(i));
+                    text.setLength(0);
+                }
+            }
+            texts.add(text.toString());
+
+            return new LiteralSpans(texts.toArray(new String[0]), codes.toString().toCharArray());
+        }
+
+        void writeTo(@NotNull SpanWriter out) {
+            out.append(texts[0]);
+            for (int i = 0; i < codes.length; i++) {
+                out.applyCode(codes[i]);
+                out.append(texts[i + 1]);
+            }
+        }
+    }
+
+    /**
+     * Joins text with the same style into spans, and visits them.
+     */
+    private static final class SpanWriter {
+        private final TextSpanVisitor visitor;
+        private final StringBuilder text = new StringBuilder();
+        private int style = 0;
+
+        SpanWriter(@NotNull TextSpanVisitor visitor) {
+            this.visitor = visitor;
+        }
+
+        void append(@NotNull CharSequence chars) {
+            text.append(chars);
+        }
+
+        void applyCode(char code) {
+            int newStyle = TextStyle.applyCode(style, code);
+            if (newStyle != style) {
+                flush();
+                style = newStyle;
+            }
+        }
+
+        void flush() {
+            if (text.length() > 0) {
+                visitor.visitSpan(text.toString(), TextStyle.get(style));
+                text.setLength(0);
+            }
+        }
+    }
+
+    private static final class SlotBinding {
+        static final SlotBinding UNBOUND = new SlotBinding(null, null);
+
+        final SubstitutionKeys keys;
+        final int[] slots;
+
+        SlotBinding(SubstitutionKeys keys, int[] slots) {
+            this.keys = keys;
+            this.slots = slots;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Validates locales against English, so loading doesn't have to wait for it, e.g. on a background thread.
+ */
+final class LocaleValidator {
+    private final Map<String, String> englishLocaleTexts;
+
+    // English placeholder keys, by locale text key, found when first compared
+    private final Map<String, Set<String>> englishPlaceholderKeys = new HashMap<>();
+
+    private LocaleValidator(@NotNull Map<String, String> englishLocaleTexts) {
+        this.englishLocaleTexts = englishLocaleTexts;
+    }
+
+    /**
+     * Validates all of a namespace's locales, and logs a line for each locale with problems.
+     */
+    @NotNull
+    static ValidationReport validate(@NotNull String namespace, @NotNull Map<LocaleKey, Map<String, String>> locales) {
+        Map<String, String> englishLocaleTexts = locales.get(LocaleKey.ENGLISH);
+        List<String> nullKeys = validateEnglish(namespace, englishLocaleTexts);
+        if (englishLocaleTexts == null) {
+            return new ValidationReport(namespace, null, Collections.emptyList());
+        }
+
+        List<LocaleKey> localeKeys = new ArrayList<>(locales.keySet());
+        localeKeys.sort(Comparator.comparing(LocaleKey::toString));
+
+        LocaleValidator validator = new LocaleValidator(englishLocaleTexts);
+        List<ValidationReport.LocaleIssues> localeIssues = new ArrayList<>();
+        for (LocaleKey localeKey : localeKeys) {
+            if (!localeKey.equals(LocaleKey.ENGLISH) && !localeKey.equals(LocaleKey.DEFAULT)) {
+                ValidationReport.LocaleIssues issues = validator.validateLocale(localeKey, locales.get(localeKey));
+                if (issues != null) {
+                    logIssues(namespace, issues);
+                    localeIssues.add(issues);
+                }
+            }
+        }
+
+        return new ValidationReport(namespace, nullKeys, localeIssues);
+    }
+
+    /**
+     * Validates English, and logs its problems.
+     *
+     * @param englishLocaleTexts the English locale texts, or null if English is missing.
+     * @return the keys that are null in English, or null if English is missing.
+     */
+    @Nullable
+    static List<String> validateEnglish(@NotNull String namespace, @Nullable Map<String, String> englishLocaleTexts) {
+        if (englishLocaleTexts == null) {
+            LocaleApi.logErr(namespace, "English (en) locale is missing. English is used as the default locale.");
+            return null;
+        }
+
+        List<String> nullKeys = new ArrayList<>();
+        for (Map.Entry<String, String> localeText : englishLocaleTexts.entrySet()) {
+            if (localeText.getValue() == null) {
+                nullKeys.add(localeText.getKey());
+            }
+        }
+        nullKeys.sort(String::compareTo);
+
+        if (!nullKeys.isEmpty()) {
+            LocaleApi.logErr(namespace, "en has " + nullKeys.size() + " null keys: " + String.join(", ", nullKeys));
+        }
+
+        return nullKeys;
+    }
+
+    /**
+     * Validates one locale, e.g. when it's lazily loaded, and logs its problems.
+     *
+     * @return the locale's problems, or null if there are none.
+     */
+    @Nullable
+    static ValidationReport.LocaleIssues validate(
+            @NotNull String namespace,
+            @NotNull LocaleKey localeKey,
+            @NotNull Map<String, String> localeTexts,
+            @NotNull Map<String, String> englishLocaleTexts
+    ) {
+        LocaleValidator validator = new LocaleValidator(englishLocaleTexts);
+        ValidationReport.LocaleIssues issues = validator.validateLocale(localeKey, localeTexts);
+        if (issues != null) {
+            logIssues(namespace, issues);
+        }
+
+        return issues;
+    }
+
+    private static void logIssues(@NotNull String namespace, @NotNull ValidationReport.LocaleIssues issues) {
+        LocaleApi.logErr(namespace, issues.toString());
+    }
+
+    @Nullable
+    private ValidationReport.LocaleIssues validateLocale(
+            @NotNull LocaleKey localeKey,
+            @NotNull Map<String, String> localeTexts
+    ) {
+        Set<String> missingKeys = new HashSet<>(englishLocaleTexts.keySet());
+        missingKeys.removeAll(localeTexts.keySet());
+
+        Set<String> extraKeys = new HashSet<>(localeTexts.keySet());
+        extraKeys.removeAll(englishLocaleTexts.keySet());
+
+        Locale locale = localeKey.toLocale();
+        List<String> placeholderMismatches = new ArrayList<>();
+        for (Map.Entry<String, String> localeText : localeTexts.entrySet()) {
+            String englishText = englishLocaleTexts.get(localeText.getKey());
+            if (localeText.getValue() == null || englishText == null) {
+                continue;
+            }
+
+            Set<String> placeholderKeys = getPlaceholderKeys(localeText.getValue(), locale);
+            if (!placeholderKeys.equals(getEnglishPlaceholderKeys(localeText.getKey(), englishText))) {
+                placeholderMismatches.add(localeText.getKey());
+            }
+        }
+
+        if (missingKeys.isEmpty() && extraKeys.isEmpty() && placeholderMismatches.isEmpty()) {
+            return null;
+        }
+
+        return new ValidationReport.LocaleIssues(
+                locale, sorted(missingKeys), sorted(extraKeys), sorted(placeholderMismatches));
+    }
+
+    @NotNull
+    private Set<String> getEnglishPlaceholderKeys(@NotNull String localeTextKey, @NotNull String englishText) {
+        Set<String> keys = englishPlaceholderKeys.get(localeTextKey);
+        if (keys == null) {
+            keys = getPlaceholderKeys(englishText, Locale.ENGLISH);
+            englishPlaceholderKeys.put(localeTextKey, keys);
+        }
+
+        return keys;
+    }
+
+    @NotNull
+    private static Set<String> getPlaceholderKeys(@NotNull String text, @NotNull Locale locale) {
+        // Most texts don't have placeholders, so don't compile them
+        if (text.indexOf('$') == -1) {
+            return Collections.emptySet();
+        }
+
+        Set<String> keys = new HashSet<>();
+        LocaleTextTemplate.compile(text, locale).addPlaceholderKeys(keys);
+        return keys;
+    }
+
+    @NotNull
+    private static List<String> sorted(@NotNull Collection<String> keys) {
+        List<String> result = new ArrayList<>(keys);
+        result.sort(String::compareTo);
+        return result;
+    }
+}
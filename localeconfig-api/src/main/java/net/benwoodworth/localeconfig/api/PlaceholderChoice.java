@@ -0,0 +1,98 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Chooses which branch of a plural or select placeholder to substitute, e.g.
+ * <code>${count,plural, one{# item} other{# items}}</code> or
+ * <code>${gender,select, female{her} male{his} other{their}}</code>.
+ * <p>
+ * Branches are compiled with the rest of the locale text, so choosing one doesn't parse anything.
+ */
+final class PlaceholderChoice {
+    static final String PLURAL = "plural";
+    static final String SELECT = "select";
+
+    // The branches, by selector. Plural selectors are either plural categories or exact values, e.g. =0
+    private final Map<String, LocaleTextTemplate> branches;
+
+    private final LocaleTextTemplate otherBranch;
+
+    // Plural branches for exact values, e.g. =0
+    private final long[] exactValues;
+    private final LocaleTextTemplate[] exactBranches;
+
+    // The locale's plural rule, or null for select placeholders
+    @Nullable
+    private final PluralRule pluralRule;
+
+    PlaceholderChoice(@NotNull Map<String, LocaleTextTemplate> branches, @Nullable PluralRule pluralRule) {
+        this.branches = branches;
+        this.otherBranch = branches.get(PluralRule.OTHER);
+        this.pluralRule = pluralRule;
+
+        int exactCount = 0;
+        for (String selector : branches.keySet()) {
+            if (pluralRule != null && selector.startsWith("=")) {
+                exactCount++;
+            }
+        }
+
+        exactValues = new long[exactCount];
+        exactBranches = new LocaleTextTemplate[exactCount];
+        int i = 0;
+        for (Map.Entry<String, LocaleTextTemplate> branch : branches.entrySet()) {
+            if (pluralRule != null && branch.getKey().startsWith("=")) {
+                exactValues[i] = Long.parseLong(branch.getKey().substring(1));
+                exactBranches[i] = branch.getValue();
+                i++;
+            }
+        }
+    }
+
+    /**
+     * @return the plural rule the branches are chosen with, or null for select placeholders.
+     */
+    @Nullable
+    PluralRule getPluralRule() {
+        return pluralRule;
+    }
+
+    @NotNull
+    Collection<LocaleTextTemplate> getBranches() {
+        return branches.values();
+    }
+
+    @NotNull
+    LocaleTextTemplate choose(@Nullable Object value) {
+        LocaleTextTemplate branch;
+        if (pluralRule == null) {
+            branch = branches.get(String.valueOf(value));
+        } else if (value instanceof Number) {
+            Number number = (Number) value;
+
+            branch = null;
+            if (number.doubleValue() == number.longValue()) {
+                long longValue = number.longValue();
+                for (int i = 0; i < exactValues.length; i++) {
+                    if (exactValues[i] == longValue) {
+                        branch = exactBranches[i];
+                        break;
+                    }
+                }
+            }
+
+            if (branch == null) {
+                branch = branches.get(pluralRule.getCategory(number));
+            }
+        } else {
+            branch = null;
+        }
+
+        return branch != null ? branch : otherBranch;
+    }
+}
@@ -0,0 +1,131 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.text.NumberFormat;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.time.temporal.TemporalAccessor;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Formats placeholder values for a locale, e.g. <code>${coins,number}</code> or <code>${time,date:short}</code>.
+ * <p>
+ * {@link NumberFormat}s are expensive to create, so they're cached for each locale, and cloned for each use since
+ * they aren't thread-safe. Locales come from players' clients, so only interned locales are cached, up to
+ * {@link #MAX_CACHED_LOCALES}. {@link DateTimeFormatter}s are immutable and cheap to localize, so they're shared.
+ */
+abstract class PlaceholderFormat {
+    static final int MAX_CACHED_LOCALES = 256;
+
+    private static final Map<String, PlaceholderFormat> formats = new HashMap<>();
+
+    static {
+        formats.put("number", new NumberPlaceholderFormat(NumberFormat::getNumberInstance));
+        formats.put("integer", new NumberPlaceholderFormat(NumberFormat::getIntegerInstance));
+        formats.put("percent", new NumberPlaceholderFormat(NumberFormat::getPercentInstance));
+        formats.put("currency", new NumberPlaceholderFormat(NumberFormat::getCurrencyInstance));
+
+        for (FormatStyle style : FormatStyle.values()) {
+            String styleName = style.name().toLowerCase(Locale.ENGLISH);
+            formats.put("date:" + styleName, new DateTimePlaceholderFormat(DateTimeFormatter.ofLocalizedDate(style)));
+            formats.put("time:" + styleName, new DateTimePlaceholderFormat(DateTimeFormatter.ofLocalizedTime(style)));
+            formats.put("datetime:" + styleName, new DateTimePlaceholderFormat(DateTimeFormatter.ofLocalizedDateTime(style)));
+        }
+
+        formats.put("date", formats.get("date:medium"));
+        formats.put("time", formats.get("time:medium"));
+        formats.put("datetime", formats.get("datetime:medium"));
+    }
+
+    PlaceholderFormat() {
+    }
+
+    /**
+     * @param format the format name, with an optional style, e.g. <code>number</code> or <code>date:short</code>.
+     * @return the format, or null if there is no such format.
+     */
+    @Nullable
+    static PlaceholderFormat get(@NotNull String format) {
+        return formats.get(format);
+    }
+
+    /**
+     * @return the formatted value, or null if the value can't be formatted.
+     */
+    @Nullable
+    abstract String format(@NotNull Object value, @NotNull Locale locale);
+
+    static final class NumberPlaceholderFormat extends PlaceholderFormat {
+        private final Function<Locale, NumberFormat> createNumberFormat;
+        private final ConcurrentMap<Locale, NumberFormat> numberFormats = new ConcurrentHashMap<>();
+
+        NumberPlaceholderFormat(@NotNull Function<Locale, NumberFormat> createNumberFormat) {
+            this.createNumberFormat = createNumberFormat;
+        }
+
+        @Override
+        @Nullable
+        String format(@NotNull Object value, @NotNull Locale locale) {
+            if (!(value instanceof Number)) {
+                return null;
+            }
+
+            NumberFormat numberFormat = numberFormats.get(locale);
+            if (numberFormat == null) {
+                numberFormat = createNumberFormat.apply(locale);
+                if (numberFormats.size() < MAX_CACHED_LOCALES && LocaleKey.get(locale).isInterned()) {
+                    NumberFormat existing = numberFormats.putIfAbsent(locale, numberFormat);
+                    if (existing != null) {
+                        numberFormat = existing;
+                    }
+                }
+            }
+
+            // The cached format is never used, only cloned, so it's safe to share between threads
+            return ((NumberFormat) numberFormat.clone()).format(value);
+        }
+
+        int getCachedLocaleCount() {
+            return numberFormats.size();
+        }
+    }
+
+    private static final class DateTimePlaceholderFormat extends PlaceholderFormat {
+        private final DateTimeFormatter dateTimeFormatter;
+
+        DateTimePlaceholderFormat(@NotNull DateTimeFormatter dateTimeFormatter) {
+            this.dateTimeFormatter = dateTimeFormatter;
+        }
+
+        @Override
+        @Nullable
+        String format(@NotNull Object value, @NotNull Locale locale) {
+            TemporalAccessor temporal;
+            if (value instanceof Instant) {
+                temporal = ((Instant) value).atZone(ZoneId.systemDefault());
+            } else if (value instanceof TemporalAccessor) {
+                temporal = (TemporalAccessor) value;
+            } else if (value instanceof Date) {
+                temporal = ((Date) value).toInstant().atZone(ZoneId.systemDefault());
+            } else if (value instanceof Calendar) {
+                Calendar calendar = (Calendar) value;
+                temporal = calendar.toInstant().atZone(calendar.getTimeZone().toZoneId());
+            } else {
+                return null;
+            }
+
+            try {
+                return dateTimeFormatter.withLocale(locale).format(temporal);
+            } catch (DateTimeException e) {
+                // e.g. a time format for a LocalDate
+                return null;
+            }
+        }
+    }
+}
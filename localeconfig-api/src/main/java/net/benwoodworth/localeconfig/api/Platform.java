@@ -2,84 +2,147 @@ package net.benwoodworth.localeconfig.api;
 
 import org.bukkit.Bukkit;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.api.Sponge;
 
-import java.io.IOException;
 import java.net.URL;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.function.Supplier;
 
 abstract class Platform {
-    private Map<LocaleKey, Map<String, String>> locales = null;
+    // Where Minecraft's language files are, e.g. /assets/minecraft/lang/en_us.json
+    static final String VANILLA_LANG_DIRECTORY = "/assets/minecraft/lang";
+
+    // Created when vanilla locale text is first needed
+    @Nullable
+    private volatile LocaleTextProvider vanillaProvider = null;
 
     private Platform() {
-        loadLocales();
     }
 
-
-    @NotNull Map<LocaleKey, Map<String, String>> getLocales() {
-        if (locales == null) {
-            locales = loadLocales();
+    /**
+     * Gets the provider for vanilla Minecraft's locales, which is shared by everything in the JVM.
+     * <p>
+     * The language files are found when this is first called, and each locale is only parsed the first time
+     * locale text is looked up for it.
+     */
+    @NotNull
+    LocaleTextProvider getVanillaProvider() {
+        LocaleTextProvider provider = vanillaProvider;
+        if (provider == null) {
+            synchronized (this) {
+                provider = vanillaProvider;
+                if (provider == null) {
+                    provider = LocaleTextProvider.createLazy(
+                            LocaleTextProviderRegistry.VANILLA_NAMESPACE,
+                            indexVanillaLocaleFiles(),
+                            Collections.emptyMap(),
+                            null
+                    );
+                    vanillaProvider = provider;
+                }
+            }
         }
 
-        return locales;
+        return provider;
     }
 
+    /**
+     * @return the resource directory containing Minecraft's language files, or null if there isn't one.
+     */
+    @Nullable
+    protected abstract URL getVanillaLangDirectory();
 
-    protected abstract @NotNull Map<LocaleKey, Map<String, String>> loadLocales();
-
-    private static Platform platform = null;
-
-    static @NotNull Platform getPlatform() {
-        if (platform != null) {
-            return platform;
+    @NotNull
+    private Map<LocaleKey, Supplier<Map<String, String>>> indexVanillaLocaleFiles() {
+        URL vanillaLangDirectory = getVanillaLangDirectory();
+        if (vanillaLangDirectory == null) {
+            return new HashMap<>();
         }
 
+        Map<LocaleKey, Supplier<Map<String, String>>> localeFiles;
         try {
-            Class.forName("org.bukkit.Bukkit");
-            platform = new BukkitPlatform();
-            return platform;
-        } catch (ClassNotFoundException ignored) {
+            localeFiles = LocaleFileLoader.indexLocaleFiles(LocaleTextProviderRegistry.VANILLA_NAMESPACE, vanillaLangDirectory);
+        } catch (Exception e) {
+            new Exception("Error loading vanilla locales: " + e.getMessage(), e).printStackTrace();
+            return new HashMap<>();
         }
 
-        try {
-            Class.forName("org.spongepowered.api.Sponge");
-            platform = new SpongePlatform();
-            return platform;
-        } catch (ClassNotFoundException ignored) {
+        // Minecraft's English is en_us, so use it as the default instead of parsing it again for en
+        LocaleKey usEnglish = LocaleKey.get(Locale.US);
+        if (!localeFiles.containsKey(LocaleKey.ENGLISH) && localeFiles.containsKey(usEnglish)) {
+            localeFiles.put(LocaleKey.ENGLISH, localeFiles.remove(usEnglish));
         }
 
-        platform = new DefaultPlatform();
-        return platform;
+        return localeFiles;
+    }
+
+    @NotNull
+    static Platform getPlatform() {
+        return PlatformHolder.platform;
+    }
+
+    // Detects the platform when it's first used, which the JVM only does once, even with multiple threads
+    private static final class PlatformHolder {
+        static final Platform platform = detectPlatform();
+
+        @NotNull
+        private static Platform detectPlatform() {
+            try {
+                Class.forName("org.bukkit.Bukkit");
+                return new BukkitPlatform();
+            } catch (ClassNotFoundException ignored) {
+            }
+
+            try {
+                Class.forName("org.spongepowered.api.Sponge");
+                return new SpongePlatform();
+            } catch (ClassNotFoundException ignored) {
+            }
+
+            return new DefaultPlatform();
+        }
     }
 
     private static class DefaultPlatform extends Platform {
         @Override
-        protected @NotNull Map<LocaleKey, Map<String, String>> loadLocales() {
-            return new HashMap<>();
+        @Nullable
+        protected URL getVanillaLangDirectory() {
+            return null;
         }
     }
 
     private static class BukkitPlatform extends Platform {
         @Override
-        protected @NotNull Map<LocaleKey, Map<String, String>> loadLocales() {
-            URL bukkitLocales = Bukkit.class.getResource("/assets/minecraft/lang");
-
-            if (bukkitLocales != null) {
-                try {
-                    return LocaleFileLoader.loadLocaleFiles("minecraft", bukkitLocales);
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
-
-            return new HashMap<>();
+        @Nullable
+        protected URL getVanillaLangDirectory() {
+            return Bukkit.class.getResource(VANILLA_LANG_DIRECTORY);
         }
     }
 
-    private static class SpongePlatform extends Platform {
+    static class SpongePlatform extends Platform {
+        @Nullable
+        private final URL vanillaLangDirectory;
+
+        SpongePlatform() {
+            // The Minecraft server's assets are loaded by the same class loader as Sponge
+            this(Sponge.class.getResource(VANILLA_LANG_DIRECTORY));
+        }
+
+        /**
+         * @param vanillaLangDirectory the resource directory containing Minecraft's language files.
+         */
+        SpongePlatform(@Nullable URL vanillaLangDirectory) {
+            this.vanillaLangDirectory = vanillaLangDirectory;
+        }
+
         @Override
-        protected @NotNull Map<LocaleKey, Map<String, String>> loadLocales() {
-            throw new UnsupportedOperationException("Not yet implemented");
+        @Nullable
+        protected URL getVanillaLangDirectory() {
+            return vanillaLangDirectory;
         }
     }
-}
\ No newline at end of file
+}
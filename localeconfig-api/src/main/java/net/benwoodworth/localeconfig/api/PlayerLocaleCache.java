@@ -0,0 +1,100 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches Bukkit players' parsed locales, so a player's locale only needs to be parsed when it changes. Sponge and
+ * BungeeCord already give players' locales as Locales, so they aren't cached.
+ * <p>
+ * Each entry remembers the raw locale it was parsed from, so an entry is never used after the player's locale
+ * changes, even if the change wasn't reported with {@link #invalidate(UUID)}.
+ */
+final class PlayerLocaleCache {
+    // Enough for every player on a large network, while bounding the memory used if quits aren't reported
+    static final int MAX_SIZE = 8192;
+
+    private final ConcurrentMap<UUID, PlayerLocale> playerLocales = new ConcurrentHashMap<>();
+
+    /**
+     * Gets a player's cached locale.
+     *
+     * @param playerId  the player's UUID.
+     * @param rawLocale the player's current locale, as given by the platform.
+     * @return the cached locale, or null if it isn't cached or the player's locale has changed.
+     */
+    @Nullable
+    PlayerLocale get(@NotNull UUID playerId, @NotNull String rawLocale) {
+        PlayerLocale playerLocale = playerLocales.get(playerId);
+        if (playerLocale == null) {
+            return null;
+        }
+
+        if (!playerLocale.rawLocale.equals(rawLocale)) {
+            return null;
+        }
+
+        return playerLocale;
+    }
+
+    void put(@NotNull UUID playerId, @NotNull PlayerLocale playerLocale) {
+        if (playerLocales.size() >= MAX_SIZE && !playerLocales.containsKey(playerId)) {
+            Iterator<UUID> playerIds = playerLocales.keySet().iterator();
+            if (playerIds.hasNext()) {
+                playerIds.next();
+                playerIds.remove();
+            }
+        }
+
+        playerLocales.put(playerId, playerLocale);
+    }
+
+    void invalidate(@NotNull UUID playerId) {
+        playerLocales.remove(playerId);
+    }
+
+    int size() {
+        return playerLocales.size();
+    }
+
+    static final class PlayerLocale {
+        @NotNull
+        final String rawLocale;
+
+        @Nullable
+        final Locale locale;
+
+        @NotNull
+        final LocaleKey localeKey;
+
+        PlayerLocale(@NotNull String rawLocale, @Nullable Locale locale) {
+            this.rawLocale = rawLocale;
+            this.locale = locale;
+            this.localeKey = LocaleKey.get(locale);
+        }
+    }
+
+    static final class BukkitListener implements org.bukkit.event.Listener {
+        private final PlayerLocaleCache cache;
+
+        BukkitListener(@NotNull PlayerLocaleCache cache) {
+            this.cache = cache;
+        }
+
+        @org.bukkit.event.EventHandler(priority = org.bukkit.event.EventPriority.MONITOR)
+        public void onPlayerLocaleChange(org.bukkit.event.player.PlayerLocaleChangeEvent event) {
+            cache.invalidate(event.getPlayer().getUniqueId());
+        }
+
+        @org.bukkit.event.EventHandler(priority = org.bukkit.event.EventPriority.MONITOR)
+        public void onPlayerQuit(org.bukkit.event.player.PlayerQuitEvent event) {
+            cache.invalidate(event.getPlayer().getUniqueId());
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A language's plural rule, which chooses the plural category of a number: zero, one, two, few, many, or other.
+ * <p>
+ * Rules are based on the CLDR cardinal plural rules, using these operands:
+ * <ul>
+ *     <li>n: the absolute value of the number</li>
+ *     <li>i: the integer digits of n</li>
+ *     <li>v: the number of visible fraction digits</li>
+ * </ul>
+ */
+abstract class PluralRule {
+    static final String ZERO = "zero";
+    static final String ONE = "one";
+    static final String TWO = "two";
+    static final String FEW = "few";
+    static final String MANY = "many";
+    static final String OTHER = "other";
+
+    private static final PluralRule ONE_OTHER = new PluralRule() {
+        @Override
+        String getCategory(double n, long i, int v) {
+            return i == 1 && v == 0 ? ONE : OTHER;
+        }
+    };
+
+    private static final PluralRule ZERO_ONE_OTHER = new PluralRule() {
+        @Override
+        String getCategory(double n, long i, int v) {
+            return i == 0 || i == 1 ? ONE : OTHER;
+        }
+    };
+
+    private static final PluralRule OTHER_ONLY = new PluralRule() {
+        @Override
+        String getCategory(double n, long i, int v) {
+            return OTHER;
+        }
+    };
+
+    private static final PluralRule EAST_SLAVIC = new PluralRule() {
+        @Override
+        String getCategory(double n, long i, int v) {
+            if (v != 0) return OTHER;
+
+            long i10 = i % 10;
+            long i100 = i % 100;
+            if (i10 == 1 && i100 != 11) return ONE;
+            if (i10 >= 2 && i10 <= 4 && (i100 < 12 || i100 > 14)) return FEW;
+            return MANY;
+        }
+    };
+
+    private static final PluralRule POLISH = new PluralRule() {
+        @Override
+        String getCategory(double n, long i, int v) {
+            if (v != 0) return OTHER;
+            if (i == 1) return ONE;
+
+            long i10 = i % 10;
+            long i100 = i % 100;
+            if (i10 >= 2 && i10 <= 4 && (i100 < 12 || i100 > 14)) return FEW;
+            return MANY;
+        }
+    };
+
+    private static final PluralRule CZECH = new PluralRule() {
+        @Override
+        String getCategory(double n, long i, int v) {
+            if (v != 0) return MANY;
+            if (i == 1) return ONE;
+            if (i >= 2 && i <= 4) return FEW;
+            return OTHER;
+        }
+    };
+
+    private static final PluralRule ARABIC = new PluralRule() {
+        @Override
+        String getCategory(double n, long i, int v) {
+            if (n == 0) return ZERO;
+            if (n == 1) return ONE;
+            if (n == 2) return TWO;
+            if (v != 0) return OTHER;
+
+            long n100 = i % 100;
+            if (n100 >= 3 && n100 <= 10) return FEW;
+            if (n100 >= 11) return MANY;
+            return OTHER;
+        }
+    };
+
+    private static final Map<String, PluralRule> rules = new HashMap<>();
+
+    static {
+        for (String language : new String[]{"fr", "pt", "hy", "kab"}) {
+            rules.put(language, ZERO_ONE_OTHER);
+        }
+        for (String language : new String[]{"ja", "zh", "ko", "vi", "th", "id", "ms", "lo", "my", "km"}) {
+            rules.put(language, OTHER_ONLY);
+        }
+        for (String language : new String[]{"ru", "uk", "be"}) {
+            rules.put(language, EAST_SLAVIC);
+        }
+        rules.put("pl", POLISH);
+        rules.put("cs", CZECH);
+        rules.put("sk", CZECH);
+        rules.put("ar", ARABIC);
+    }
+
+    PluralRule() {
+    }
+
+    /**
+     * Gets the plural rule for a locale's language. Languages without a known rule use English's rule.
+     */
+    @NotNull
+    static PluralRule forLocale(@NotNull Locale locale) {
+        PluralRule rule = rules.get(locale.getLanguage());
+        if (rule == null) {
+            return ONE_OTHER;
+        }
+
+        // European Portuguese only treats 1 as singular
+        if (rule == ZERO_ONE_OTHER && locale.getLanguage().equals("pt") && locale.getCountry().equals("PT")) {
+            return ONE_OTHER;
+        }
+
+        return rule;
+    }
+
+    /**
+     * @return the plural category of the number.
+     */
+    @NotNull
+    String getCategory(@NotNull Number number) {
+        int v;
+        double n;
+        if (number instanceof BigDecimal) {
+            BigDecimal decimal = ((BigDecimal) number).abs();
+            v = Math.max(0, decimal.scale());
+            n = decimal.doubleValue();
+        } else if (number instanceof Integer || number instanceof Long || number instanceof Short ||
+                number instanceof Byte || number instanceof BigInteger) {
+            v = 0;
+            n = Math.abs(number.doubleValue());
+        } else {
+            n = Math.abs(number.doubleValue());
+            v = n == Math.floor(n) ? 0 : 1;
+        }
+
+        return getCategory(n, (long) n, v);
+    }
+
+    @NotNull
+    abstract String getCategory(double n, long i, int v);
+}
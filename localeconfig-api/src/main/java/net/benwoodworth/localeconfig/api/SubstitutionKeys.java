@@ -0,0 +1,86 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A validated set of substitution keys, each with a slot.
+ * <p>
+ * Substitution keys are interned, so templates can cache which slot each of their placeholders uses. They're checked
+ * against the global keys again whenever the global substitutions change, like keys in maps are.
+ */
+final class SubstitutionKeys {
+    private static final ConcurrentMap<List<String>, SubstitutionKeys> substitutionKeys = new ConcurrentHashMap<>();
+
+    private final String[] keys;
+    private final Map<String, Integer> slots;
+
+    // The global substitutions the keys were last checked against
+    private volatile GlobalSubstitutions validatedGlobals = null;
+
+    private SubstitutionKeys(@NotNull String[] keys) {
+        this.keys = keys;
+
+        slots = new HashMap<>();
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (slots.put(keys[slot], slot) != null) {
+                throw new IllegalArgumentException("Duplicate substitution key: '" + keys[slot] + "'");
+            }
+        }
+    }
+
+    @NotNull
+    static SubstitutionKeys get(@NotNull String... keys) {
+        List<String> keyList = Arrays.asList(keys.clone());
+
+        SubstitutionKeys result = substitutionKeys.get(keyList);
+        if (result == null) {
+            result = new SubstitutionKeys(keyList.toArray(new String[0]));
+            result.validate();
+
+            SubstitutionKeys existing = substitutionKeys.putIfAbsent(keyList, result);
+            if (existing != null) {
+                result = existing;
+            }
+        }
+
+        result.validate();
+        return result;
+    }
+
+    /**
+     * Checks that the keys are valid, and don't clash with the current global keys.
+     * The keys are only checked again after the global substitutions change.
+     *
+     * @throws IllegalArgumentException if a key is invalid.
+     */
+    void validate() {
+        GlobalSubstitutions globals = GlobalSubstitutions.get();
+        if (validatedGlobals != globals) {
+            for (String key : keys) {
+                globals.validateKey(key);
+            }
+            validatedGlobals = globals;
+        }
+    }
+
+    /**
+     * @return the slot of the key, or -1 if there is no slot for it.
+     */
+    int getSlot(@NotNull String key) {
+        Integer slot = slots.get(key);
+        return slot == null ? -1 : slot;
+    }
+
+    @NotNull
+    String getKey(int slot) {
+        return keys[slot];
+    }
+
+    int size() {
+        return keys.length;
+    }
+}
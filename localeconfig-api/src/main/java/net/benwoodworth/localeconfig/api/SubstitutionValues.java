@@ -0,0 +1,51 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+
+/**
+ * Values to substitute into a template's placeholders.
+ */
+abstract class SubstitutionValues {
+    /**
+     * Returned when there is no value for a placeholder, in which case the placeholder is left as is.
+     */
+    static final Object NO_VALUE = new Object();
+
+    SubstitutionValues() {
+    }
+
+    /**
+     * @return the value for the template's placeholder, or {@link #NO_VALUE}.
+     */
+    @Nullable
+    abstract Object getValue(@NotNull LocaleTextTemplate template, int placeholder);
+
+    @NotNull
+    static SubstitutionValues of(@NotNull Map<@NotNull String, @Nullable Object> substitutions) {
+        return new MapSubstitutionValues(substitutions);
+    }
+
+    private static final class MapSubstitutionValues extends SubstitutionValues {
+        private final Map<String, Object> substitutions;
+
+        MapSubstitutionValues(@NotNull Map<@NotNull String, @Nullable Object> substitutions) {
+            this.substitutions = substitutions;
+        }
+
+        @Override
+        @Nullable
+        Object getValue(@NotNull LocaleTextTemplate template, int placeholder) {
+            String key = template.getPlaceholderKey(placeholder);
+
+            Object value = substitutions.get(key);
+            if (value == null && !substitutions.containsKey(key)) {
+                return NO_VALUE;
+            }
+
+            return value;
+        }
+    }
+}
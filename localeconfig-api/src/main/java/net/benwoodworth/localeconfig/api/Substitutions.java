@@ -0,0 +1,130 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Reusable values to substitute into locale text.
+ * <p>
+ * The keys are validated once, when the substitutions are created, and locale text remembers where each of its
+ * placeholders' values are. Substituting the same locale text repeatedly with the same keys skips validating and
+ * hashing the keys.
+ *
+ * <p>
+ * Usage:
+ * <pre>
+ *     Substitutions substitutions = Substitutions.of("player", "coins");
+ *     ...
+ *     localeText.substitute(substitutions.values(playerName, coins));
+ * </pre>
+ * <p>
+ * Substitutions are not thread-safe, and should not be shared between threads while they're being changed.
+ *
+ * @see LocaleText#substitute(Substitutions)
+ */
+public final class Substitutions {
+    @NotNull
+    private final SubstitutionKeys keys;
+
+    @NotNull
+    private final Object[] values;
+
+    @NotNull
+    private final SubstitutionValues substitutionValues = new SlotValues();
+
+    private Substitutions(@NotNull SubstitutionKeys keys) {
+        this.keys = keys;
+
+        values = new Object[keys.size()];
+        Arrays.fill(values, SubstitutionValues.NO_VALUE);
+    }
+
+    /**
+     * Creates substitutions for the specified keys, with no values set.
+     * <p>
+     * Keys must start with a letter, and must only contain letters, numbers, and underscores.
+     *
+     * @param keys the substitution keys.
+     * @return the substitutions.
+     */
+    @NotNull
+    public static Substitutions of(@NotNull String... keys) {
+        return new Substitutions(SubstitutionKeys.get(keys));
+    }
+
+    /**
+     * Sets the value to substitute for a key.
+     *
+     * @param key   the substitution key.
+     * @param value the value to substitute.
+     * @return these substitutions.
+     */
+    @NotNull
+    public Substitutions set(@NotNull String key, @Nullable Object value) {
+        int slot = keys.getSlot(key);
+        if (slot == -1) {
+            throw new IllegalArgumentException("Unknown substitution key: '" + key + "'");
+        }
+
+        values[slot] = value;
+        return this;
+    }
+
+    /**
+     * Sets the values to substitute for all the keys, in the order the keys were specified.
+     *
+     * @param values the values to substitute.
+     * @return these substitutions.
+     */
+    @NotNull
+    public Substitutions values(@Nullable Object... values) {
+        if (values == null || values.length != this.values.length) {
+            throw new IllegalArgumentException("Expected " + this.values.length + " values");
+        }
+
+        System.arraycopy(values, 0, this.values, 0, values.length);
+        return this;
+    }
+
+    /**
+     * Unsets all the values, so none will be substituted.
+     *
+     * @return these substitutions.
+     */
+    @NotNull
+    public Substitutions clear() {
+        Arrays.fill(values, SubstitutionValues.NO_VALUE);
+        return this;
+    }
+
+    @NotNull
+    SubstitutionKeys getKeys() {
+        return keys;
+    }
+
+    @NotNull
+    Object[] getValues() {
+        return values;
+    }
+
+    /**
+     * @return the current values, to substitute into templates.
+     * @throws IllegalArgumentException if a key clashes with a global key that was set after these were created.
+     */
+    @NotNull
+    SubstitutionValues asValues() {
+        keys.validate();
+        return substitutionValues;
+    }
+
+    private final class SlotValues extends SubstitutionValues {
+        @Override
+        @Nullable
+        Object getValue(@NotNull LocaleTextTemplate template, int placeholder) {
+            int slot = template.getSlots(keys)[placeholder];
+            return slot == -1 ? NO_VALUE : values[slot];
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives substituted locale text as styled spans, instead of a string with legacy <code>&sect;</code> codes.
+ * <p>
+ * Formatting codes are read from the locale text when it's compiled, so the text doesn't need to be parsed again
+ * to build chat components. Substituted values are never parsed for formatting codes.
+ *
+ * @see LocaleText#substituteSpans(TextSpanVisitor, java.util.Map)
+ * @see BungeeComponentBuilder
+ * @see JsonChatBuilder
+ */
+public interface TextSpanVisitor {
+    /**
+     * Visits the next span of text. Consecutive spans have different styles, and are never empty.
+     *
+     * @param text  the text.
+     * @param style the text's style.
+     */
+    void visitSpan(@NotNull String text, @NotNull TextStyle style);
+}
@@ -0,0 +1,131 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The color and decorations of a span of substituted locale text.
+ * <p>
+ * Styles are interned, so they can be compared by reference.
+ *
+ * @see TextSpanVisitor
+ */
+public final class TextStyle {
+    // Legacy color names, indexed by color code
+    private static final String[] colors = {
+            "black", "dark_blue", "dark_green", "dark_aqua", "dark_red", "dark_purple", "gold", "gray",
+            "dark_gray", "blue", "green", "aqua", "red", "light_purple", "yellow", "white"
+    };
+
+    private static final String COLOR_CODES = "0123456789abcdef";
+
+    // Styles are packed into ints: the color index + 1 (or 0 for no color), followed by decoration bits
+    private static final int COLOR_MASK = 0x1F;
+    private static final int BOLD = 1 << 5;
+    private static final int ITALIC = 1 << 6;
+    private static final int UNDERLINED = 1 << 7;
+    private static final int STRIKETHROUGH = 1 << 8;
+    private static final int OBFUSCATED = 1 << 9;
+
+    // Every style, indexed by its packed int
+    private static final TextStyle[] styles = new TextStyle[1 << 10];
+
+    static {
+        for (int style = 0; style < styles.length; style++) {
+            if ((style & COLOR_MASK) <= colors.length) {
+                styles[style] = new TextStyle(style);
+            }
+        }
+    }
+
+    /**
+     * Unstyled text.
+     */
+    @NotNull
+    public static final TextStyle NONE = styles[0];
+
+    private final int style;
+
+    private TextStyle(int style) {
+        this.style = style;
+    }
+
+    @NotNull
+    static TextStyle get(int style) {
+        return styles[style];
+    }
+
+    /**
+     * Applies a legacy formatting code, e.g. the <code>c</code> in <code>&sect;c</code>.
+     * Like Minecraft, colors and resets clear decorations.
+     *
+     * @return the new style, or -1 if the code isn't a formatting code.
+     */
+    static int applyCode(int style, char code) {
+        code = Character.toLowerCase(code);
+        switch (code) {
+            case 'k':
+                return style | OBFUSCATED;
+            case 'l':
+                return style | BOLD;
+            case 'm':
+                return style | STRIKETHROUGH;
+            case 'n':
+                return style | UNDERLINED;
+            case 'o':
+                return style | ITALIC;
+            case 'r':
+                return 0;
+        }
+
+        int color = COLOR_CODES.indexOf(code);
+        return color == -1 ? -1 : color + 1;
+    }
+
+    /**
+     * @return the color's name, e.g. <code>dark_red</code>, or null if the text isn't colored.
+     */
+    @Nullable
+    public String getColor() {
+        int color = style & COLOR_MASK;
+        return color == 0 ? null : colors[color - 1];
+    }
+
+    /**
+     * @return the legacy color code, e.g. <code>c</code>, or 0 if the text isn't colored.
+     */
+    char getColorCode() {
+        int color = style & COLOR_MASK;
+        return color == 0 ? 0 : COLOR_CODES.charAt(color - 1);
+    }
+
+    public boolean isBold() {
+        return (style & BOLD) != 0;
+    }
+
+    public boolean isItalic() {
+        return (style & ITALIC) != 0;
+    }
+
+    public boolean isUnderlined() {
+        return (style & UNDERLINED) != 0;
+    }
+
+    public boolean isStrikethrough() {
+        return (style & STRIKETHROUGH) != 0;
+    }
+
+    public boolean isObfuscated() {
+        return (style & OBFUSCATED) != 0;
+    }
+
+    @Override
+    public String toString() {
+        return "TextStyle(color=" + getColor() +
+                ", bold=" + isBold() +
+                ", italic=" + isItalic() +
+                ", underlined=" + isUnderlined() +
+                ", strikethrough=" + isStrikethrough() +
+                ", obfuscated=" + isObfuscated() + ")";
+    }
+}
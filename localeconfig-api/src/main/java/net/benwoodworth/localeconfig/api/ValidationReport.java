@@ -0,0 +1,174 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Problems found in a namespace's locale files, compared to English.
+ *
+ * @see LocaleApi#getValidationReport(String)
+ */
+public final class ValidationReport {
+    @NotNull
+    private final String namespace;
+
+    // Null if English is missing
+    @Nullable
+    private final List<String> nullKeys;
+
+    @NotNull
+    private final List<LocaleIssues> localeIssues;
+
+    ValidationReport(
+            @NotNull String namespace,
+            @Nullable List<String> nullKeys,
+            @NotNull List<LocaleIssues> localeIssues
+    ) {
+        this.namespace = namespace;
+        this.nullKeys = nullKeys == null ? null : Collections.unmodifiableList(nullKeys);
+        this.localeIssues = Collections.unmodifiableList(localeIssues);
+    }
+
+    @NotNull
+    public String getNamespace() {
+        return namespace;
+    }
+
+    /**
+     * @return true if there's no English (en) locale, which is used as the default locale.
+     */
+    public boolean isEnglishMissing() {
+        return nullKeys == null;
+    }
+
+    /**
+     * @return the keys that are null in English, sorted. English texts shouldn't be null, since there's nothing
+     * for them to fall back to.
+     */
+    @NotNull
+    public List<String> getNullKeys() {
+        return nullKeys == null ? Collections.emptyList() : nullKeys;
+    }
+
+    /**
+     * @return the problems in each locale other than English, for the locales that have problems.
+     */
+    @NotNull
+    public List<LocaleIssues> getLocaleIssues() {
+        return localeIssues;
+    }
+
+    /**
+     * @return true if no problems were found.
+     */
+    public boolean isValid() {
+        return nullKeys != null && nullKeys.isEmpty() && localeIssues.isEmpty();
+    }
+
+    @Override
+    @NotNull
+    public String toString() {
+        StringBuilder result = new StringBuilder(namespace).append(':');
+        if (isEnglishMissing()) {
+            result.append(" English (en) locale is missing");
+        } else if (isValid()) {
+            result.append(" no problems found");
+        } else {
+            if (!getNullKeys().isEmpty()) {
+                result.append("\n    en has null keys: ").append(getNullKeys());
+            }
+            for (LocaleIssues issues : localeIssues) {
+                result.append("\n    ").append(issues);
+            }
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * Problems found in a locale, compared to English.
+     */
+    public static final class LocaleIssues {
+        @NotNull
+        private final Locale locale;
+        @NotNull
+        private final List<String> missingKeys;
+        @NotNull
+        private final List<String> extraKeys;
+        @NotNull
+        private final List<String> placeholderMismatches;
+
+        LocaleIssues(
+                @NotNull Locale locale,
+                @NotNull List<String> missingKeys,
+                @NotNull List<String> extraKeys,
+                @NotNull List<String> placeholderMismatches
+        ) {
+            this.locale = locale;
+            this.missingKeys = Collections.unmodifiableList(missingKeys);
+            this.extraKeys = Collections.unmodifiableList(extraKeys);
+            this.placeholderMismatches = Collections.unmodifiableList(placeholderMismatches);
+        }
+
+        @NotNull
+        public Locale getLocale() {
+            return locale;
+        }
+
+        /**
+         * @return the keys that are in English, but not in this locale, sorted.
+         */
+        @NotNull
+        public List<String> getMissingKeys() {
+            return missingKeys;
+        }
+
+        /**
+         * @return the keys that are in this locale, but not in English, sorted.
+         */
+        @NotNull
+        public List<String> getExtraKeys() {
+            return extraKeys;
+        }
+
+        /**
+         * @return the keys whose texts have different placeholders than English, e.g. <code>$player</code> in
+         * English but <code>$name</code> in this locale, sorted.
+         */
+        @NotNull
+        public List<String> getPlaceholderMismatches() {
+            return placeholderMismatches;
+        }
+
+        @Override
+        @NotNull
+        public String toString() {
+            List<String> issues = new ArrayList<>();
+            addIssue(issues, missingKeys, "missing key", "missing keys");
+            addIssue(issues, extraKeys, "extra key", "extra keys");
+            addIssue(issues, placeholderMismatches, "placeholder mismatch", "placeholder mismatches");
+            return locale.toLanguageTag() + " has " + String.join(", ", issues);
+        }
+
+        // e.g. "12 missing keys (a, b, c, ...)"
+        private static void addIssue(
+                @NotNull List<String> issues,
+                @NotNull List<String> keys,
+                @NotNull String singular,
+                @NotNull String plural
+        ) {
+            if (keys.isEmpty()) {
+                return;
+            }
+
+            String examples = String.join(", ", keys.subList(0, Math.min(keys.size(), 3)));
+            issues.add(keys.size() + " " + (keys.size() == 1 ? singular : plural) +
+                    " (" + examples + (keys.size() > 3 ? ", ...)" : ")"));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JarDirectoryIndexTest {
+    @TempDir
+    Path tempDir;
+
+    private void writeJar(Path jarFile, String... entryNames) throws IOException {
+        try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(jarFile))) {
+            for (String entryName : entryNames) {
+                jar.putNextEntry(new JarEntry(entryName));
+                if (!entryName.endsWith("/")) {
+                    jar.write('x');
+                }
+                jar.closeEntry();
+            }
+        }
+    }
+
+    @Test
+    void list() throws IOException {
+        Path jarFile = tempDir.resolve("test.jar");
+        writeJar(jarFile, "other/b.json", "locales/", "locales/sub/fr.json", "localesX/a.json", "locales/en.json", "z");
+
+        JarDirectoryIndex index = JarDirectoryIndex.get(jarFile);
+        assertEquals(Arrays.asList("locales/en.json", "locales/sub/fr.json"), index.list("locales"));
+        assertEquals(index.list("locales"), index.list("locales/"));
+        assertEquals(Arrays.asList("locales/sub/fr.json"), index.list("locales/sub"));
+        assertTrue(index.list("missing").isEmpty());
+        assertEquals(6 - 1, index.list("").size());
+    }
+
+    @Test
+    void getReindexesModifiedJar() throws IOException {
+        Path jarFile = tempDir.resolve("test.jar");
+        writeJar(jarFile, "locales/en.json");
+        Files.setLastModifiedTime(jarFile, FileTime.fromMillis(1000000));
+
+        JarDirectoryIndex index = JarDirectoryIndex.get(jarFile);
+        assertSame(index, JarDirectoryIndex.get(jarFile));
+
+        writeJar(jarFile, "locales/en.json", "locales/fr.json");
+        Files.setLastModifiedTime(jarFile, FileTime.fromMillis(2000000));
+
+        JarDirectoryIndex reindexed = JarDirectoryIndex.get(jarFile);
+        assertNotSame(index, reindexed);
+        assertEquals(Arrays.asList("locales/en.json", "locales/fr.json"), reindexed.list("locales"));
+        assertSame(reindexed, JarDirectoryIndex.get(jarFile));
+    }
+}
@@ -6,12 +6,14 @@ import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Random;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 class JsonReaderTest {
     private BufferedReader stringReader(String string) {
@@ -42,4 +44,82 @@ class JsonReaderTest {
                 JsonReader.readLocaleJson(stringReader(testJson))
         );
     }
+
+    @Test
+    void readLocaleJsonErrorPosition() {
+        ParseException e = assertThrows(
+                ParseException.class,
+                () -> JsonReader.readLocaleJson("{\n  \"a\": \"b\",\r\n  \"c\" \"d\"\n}")
+        );
+
+        assertEquals(21, e.getErrorOffset());
+        assertTrue(e.getMessage().endsWith("at line 3, column 7"), e.getMessage());
+    }
+
+    @Test
+    void readLocaleJsonMatchesLegacyReader() {
+        Random random = new Random(0);
+        String[] fragments = {
+                "a", "b", ".", " ", "\t", "\n", "\u00E9", "\uD83D\uDE00",
+                "\\\\", "\\\"", "\\n", "\\u0041", "\\u00e9", "\\/", "\\x", "\\u00"
+        };
+        String[] whitespace = {"", " ", "\n", "\r\n", "\t"};
+
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder json = new StringBuilder("{");
+            int memberCount = random.nextInt(5);
+            for (int j = 0; j < memberCount; j++) {
+                if (j > 0) json.append(',');
+                json.append(whitespace[random.nextInt(whitespace.length)]);
+                appendString(json, random, fragments);
+                json.append(whitespace[random.nextInt(whitespace.length)]).append(':');
+                json.append(whitespace[random.nextInt(whitespace.length)]);
+                if (random.nextInt(4) == 0) {
+                    json.append("null");
+                } else {
+                    appendString(json, random, fragments);
+                }
+            }
+            json.append(whitespace[random.nextInt(whitespace.length)]).append('}');
+
+            // Also compare malformed json
+            if (random.nextBoolean()) {
+                int index = random.nextInt(json.length());
+                if (random.nextBoolean()) {
+                    json.deleteCharAt(index);
+                } else {
+                    json.insert(index, "{}\":,n\\ ".charAt(random.nextInt(8)));
+                }
+            }
+
+            assertSameResult(json.toString());
+        }
+    }
+
+    private static void appendString(StringBuilder json, Random random, String[] fragments) {
+        json.append('"');
+        int fragmentCount = random.nextInt(6);
+        for (int i = 0; i < fragmentCount; i++) {
+            json.append(fragments[random.nextInt(fragments.length)]);
+        }
+        json.append('"');
+    }
+
+    private void assertSameResult(String json) {
+        Map<String, String> expected;
+        try {
+            expected = LegacyJsonReader.readLocaleJson(new BufferedReader(new StringReader(json)));
+        } catch (IOException | ParseException e) {
+            expected = null;
+        }
+
+        Map<String, String> actual;
+        try {
+            actual = JsonReader.readLocaleJson(json);
+        } catch (ParseException e) {
+            actual = null;
+        }
+
+        assertEquals(expected, actual, json);
+    }
 }
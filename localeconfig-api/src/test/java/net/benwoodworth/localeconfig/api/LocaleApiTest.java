@@ -0,0 +1,117 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocaleApiTest {
+    @TempDir
+    static Path localeDir;
+
+    @BeforeAll
+    static void load() throws IOException {
+        writeLocaleFile("en.json", "{'greeting': 'Hello $name'}");
+        writeLocaleFile("fr.json", "{'greeting': 'Bonjour $name', 'french.only': 'Seulement $name'}");
+
+        LocaleApi.load("broadcast", localeDir);
+    }
+
+    private static void writeLocaleFile(String fileName, String json) throws IOException {
+        Files.write(localeDir.resolve(fileName), json.replace('\'', '"').getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class Recipient {
+        final Locale locale;
+        final List<String> messages = new ArrayList<>();
+
+        Recipient(Locale locale) {
+            this.locale = locale;
+        }
+    }
+
+    // Counts how many times it's substituted into a text
+    private static final class CountingValue {
+        int count;
+
+        @Override
+        public String toString() {
+            count++;
+            return "Steve";
+        }
+    }
+
+    private static CountingValue broadcast(List<Recipient> recipients, String localeTextKey) {
+        CountingValue name = new CountingValue();
+        LocaleApi.broadcast(
+                recipients,
+                recipient -> recipient.locale,
+                (recipient, message) -> recipient.messages.add(message),
+                LocaleApi.key(localeTextKey),
+                "name", name
+        );
+        return name;
+    }
+
+    @Test
+    void broadcastRendersOncePerLocale() {
+        List<Recipient> english = Arrays.asList(
+                new Recipient(Locale.ENGLISH), new Recipient(new Locale("EN")), new Recipient(Locale.ENGLISH));
+        List<Recipient> french = Arrays.asList(new Recipient(Locale.FRENCH), new Recipient(new Locale("fr")));
+
+        List<Recipient> recipients = new ArrayList<>();
+        recipients.addAll(english);
+        recipients.addAll(french);
+        Collections.shuffle(recipients, new Random(0));
+
+        CountingValue name = broadcast(recipients, "broadcast:greeting");
+
+        for (Recipient recipient : english) {
+            assertEquals(Collections.singletonList("Hello Steve"), recipient.messages);
+        }
+        for (Recipient recipient : french) {
+            assertEquals(Collections.singletonList("Bonjour Steve"), recipient.messages);
+        }
+        assertEquals(2, name.count);
+    }
+
+    @Test
+    void broadcastToUnknownLocales() {
+        Recipient unknown = new Recipient(new Locale("xx", "YY"));
+        Recipient unknown2 = new Recipient(new Locale("xx", "YY"));
+        Recipient noLocale = new Recipient(null);
+
+        CountingValue name = broadcast(Arrays.asList(unknown, noLocale, unknown2), "broadcast:greeting");
+
+        // Unknown locales fall back to English, but are still rendered once each for their own locale
+        assertEquals(Collections.singletonList("Hello Steve"), unknown.messages);
+        assertEquals(Collections.singletonList("Hello Steve"), unknown2.messages);
+        assertEquals(Collections.singletonList("Hello Steve"), noLocale.messages);
+        assertEquals(2, name.count);
+    }
+
+    @Test
+    void broadcastSkipsMissingTexts() {
+        Recipient english = new Recipient(Locale.ENGLISH);
+        Recipient french = new Recipient(Locale.FRENCH);
+        Recipient unknown = new Recipient(new Locale("xx"));
+
+        CountingValue name = broadcast(Arrays.asList(english, french, unknown), "broadcast:french.only");
+
+        assertEquals(Collections.emptyList(), english.messages);
+        assertEquals(Collections.singletonList("Seulement Steve"), french.messages);
+        assertEquals(Collections.emptyList(), unknown.messages);
+        assertEquals(1, name.count);
+
+        name = broadcast(Arrays.asList(english, french, unknown), "broadcast:missing");
+        assertEquals(1, french.messages.size());
+        assertEquals(0, name.count);
+    }
+}
@@ -0,0 +1,102 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocaleDirectoryWatcherTest {
+    @TempDir
+    Path localeDir;
+
+    private Path writeLocaleFile(String fileName, String json) throws IOException {
+        return Files.write(localeDir.resolve(fileName), json.replace('\'', '"').getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void reload() throws IOException {
+        writeLocaleFile("en.json", "{'a': 'en a', 'b': 'en b'}");
+        Path frFile = writeLocaleFile("fr.json", "{'a': 'fr a', 'b': null}");
+        Path deFile = writeLocaleFile("de.json", "{'a': 'de a', 'b': null}");
+
+        LocaleTextProviderRegistry registry = new LocaleTextProviderRegistry();
+        try (LocaleDirectoryWatcher watcher = LocaleDirectoryWatcher.start("test", localeDir, Collections.emptyMap(), registry)) {
+            LocaleText frText = registry.getText(Locale.FRENCH, "a");
+            assertEquals("fr a", frText.getText());
+            assertEquals("de a", registry.getText(Locale.GERMAN, "a").getText());
+
+            writeLocaleFile("de.json", "{'a': 'new de a', 'b': 'de b'}");
+            watcher.reload(Collections.singletonList(deFile));
+
+            assertEquals("new de a", registry.getText(Locale.GERMAN, "a").getText());
+            assertEquals("de b", registry.getText(Locale.GERMAN, "b").getText());
+            assertSame(frText, registry.getText(Locale.FRENCH, "a"));
+
+            Files.delete(frFile);
+            watcher.reload(Collections.singletonList(frFile));
+
+            assertEquals("en a", registry.getText(Locale.FRENCH, "a").getText());
+        }
+    }
+
+    @Test
+    void reloadKeepsFileWithErrors() throws IOException {
+        Path enFile = writeLocaleFile("en.json", "{'a': 'en a'}");
+
+        LocaleTextProviderRegistry registry = new LocaleTextProviderRegistry();
+        try (LocaleDirectoryWatcher watcher = LocaleDirectoryWatcher.start("test", localeDir, Collections.emptyMap(), registry)) {
+            writeLocaleFile("en.json", "{'a': ");
+            watcher.reload(Collections.singletonList(enFile));
+
+            assertEquals("en a", registry.getText(Locale.ENGLISH, "a").getText());
+        }
+    }
+
+    @Test
+    void reloadDoesNotReplaceNewerProvider() throws IOException {
+        Path enFile = writeLocaleFile("en.json", "{'a': 'en a'}");
+
+        LocaleTextProviderRegistry registry = new LocaleTextProviderRegistry();
+        try (LocaleDirectoryWatcher watcher = LocaleDirectoryWatcher.start("test", localeDir, Collections.emptyMap(), registry)) {
+            // Loaded again, e.g. with LocaleApi.load()
+            Map<LocaleKey, Map<String, String>> locales = new HashMap<>();
+            locales.put(LocaleKey.ENGLISH, Collections.singletonMap("a", "loaded a"));
+            locales.put(LocaleKey.DEFAULT, locales.get(LocaleKey.ENGLISH));
+            registry.register(LocaleTextProvider.create("test", locales), true);
+
+            writeLocaleFile("en.json", "{'a': 'new en a'}");
+            watcher.reload(Collections.singletonList(enFile));
+
+            assertEquals("loaded a", registry.getText(Locale.ENGLISH, "a").getText());
+        }
+    }
+
+    @Test
+    void watchReloadsChangedFiles() throws IOException, InterruptedException {
+        writeLocaleFile("en.json", "{'a': 'en a'}");
+
+        LocaleTextProviderRegistry registry = new LocaleTextProviderRegistry();
+        LocaleDirectoryWatcher watcher = LocaleDirectoryWatcher.start("test", localeDir, Collections.emptyMap(), registry);
+        try {
+            writeLocaleFile("fr.json", "{'a': 'fr a'}");
+
+            // Reloaded on the watcher's thread
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (!"fr a".equals(registry.getText(Locale.FRENCH, "a").getText())) {
+                assertTrue(System.currentTimeMillis() < deadline, "fr.json was not reloaded");
+                Thread.sleep(20);
+            }
+        } finally {
+            watcher.close();
+        }
+    }
+}
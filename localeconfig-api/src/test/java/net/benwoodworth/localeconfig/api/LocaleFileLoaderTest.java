@@ -0,0 +1,167 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocaleFileLoaderTest {
+    @TempDir
+    Path localeDir;
+
+    private void writeLocaleFile(String fileName, String json) throws IOException {
+        Files.write(localeDir.resolve(fileName), json.replace('\'', '"').getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void loadLocaleFiles() throws IOException {
+        writeLocaleFile("en.json", "{'a': 'en a', 'b': '\u00E9'}");
+        writeLocaleFile("fr.json", "{'a': 'fr a', 'b': null}");
+        writeLocaleFile("readme.txt", "not a locale");
+        writeLocaleFile("broken.json", "{'a': ");
+
+        // Large enough to be memory-mapped
+        StringBuilder largeJson = new StringBuilder("{");
+        Map<String, String> largeLocale = new HashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            largeJson.append(i == 0 ? "" : ",").append("'key").append(i).append("': 'de \u00E4 ").append(i).append("'");
+            largeLocale.put("key" + i, "de \u00E4 " + i);
+        }
+        writeLocaleFile("de.json", largeJson.append("}").toString());
+
+        Map<LocaleKey, Map<String, String>> sequential = LocaleFileLoader.loadLocaleFiles("test", localeDir, Runnable::run);
+        Map<LocaleKey, Map<String, String>> parallel = LocaleFileLoader.loadLocaleFiles("test", localeDir, ForkJoinPool.commonPool());
+        Map<LocaleKey, Map<String, String>> fromUrl = LocaleFileLoader.loadLocaleFiles("test", localeDir.toUri().toURL(), Runnable::run);
+
+        assertEquals("\u00E9", sequential.get(LocaleKey.ENGLISH).get("b"));
+        assertSame(sequential.get(LocaleKey.ENGLISH), sequential.get(LocaleKey.DEFAULT));
+        assertTrue(sequential.get(LocaleKey.get(Locale.FRENCH)).containsKey("b"));
+        assertEquals(largeLocale, sequential.get(LocaleKey.get(Locale.GERMAN)));
+        assertEquals(4, sequential.size());
+
+        assertEquals(sequential, parallel);
+        assertEquals(sequential, fromUrl);
+    }
+
+    @Test
+    void loadLocaleFilesConcurrently() throws Exception {
+        writeLocaleFile("a-broken.json", "{'a': ");
+        writeLocaleFile("de.json", "{'a': 'de a'}");
+        writeLocaleFile("c.txt", "not a locale");
+        writeLocaleFile("d-broken.json", "[]");
+        writeLocaleFile("en.json", "{'a': 'en a', 'b': 'en b'}");
+        writeLocaleFile("fr.json", "{'a': 'fr a'}");
+        writeLocaleFile("z-broken.json", "{'a': 1}");
+
+        // Files submitted earlier take longer, so they finish parsing out of order on different threads
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        AtomicInteger submitted = new AtomicInteger();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        Executor executor = task -> {
+            int delay = 60 - 10 * submitted.getAndIncrement();
+            pool.execute(() -> {
+                threads.add(Thread.currentThread());
+                try {
+                    Thread.sleep(Math.max(delay, 0));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                task.run();
+            });
+        };
+
+        PrintStream err = System.err;
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        Map<LocaleKey, Map<String, String>> locales;
+        try {
+            System.setErr(new PrintStream(errors, true, "UTF-8"));
+            locales = LocaleFileLoader.loadLocaleFiles("test", localeDir.toUri().toURL(), executor);
+        } finally {
+            System.setErr(err);
+            pool.shutdown();
+        }
+
+        assertTrue(threads.size() > 1);
+
+        Map<LocaleKey, Map<String, String>> expected = new HashMap<>();
+        expected.put(LocaleKey.get(Locale.GERMAN), Collections.singletonMap("a", "de a"));
+        Map<String, String> english = new HashMap<>();
+        english.put("a", "en a");
+        english.put("b", "en b");
+        expected.put(LocaleKey.ENGLISH, english);
+        expected.put(LocaleKey.DEFAULT, english);
+        expected.put(LocaleKey.get(Locale.FRENCH), Collections.singletonMap("a", "fr a"));
+        assertEquals(expected, locales);
+        assertEquals(LocaleFileLoader.loadLocaleFiles("test", localeDir, Runnable::run), locales);
+
+        List<String> reported = new ArrayList<>();
+        for (String line : new String(errors.toByteArray(), StandardCharsets.UTF_8).split("\\R")) {
+            Matcher matcher = Pattern.compile("Error loading (\\S+):|(\\S+) is not a \\.json file").matcher(line);
+            if (matcher.find()) {
+                reported.add(matcher.group(1) != null ? matcher.group(1) : matcher.group(2));
+            }
+        }
+        assertEquals(Arrays.asList("a-broken.json", "c.txt", "d-broken.json", "z-broken.json"), reported);
+    }
+
+    @Test
+    void loadLocaleBundle() throws IOException {
+        writeLocaleFile("en.json", "{'a': 'en a', 'b': 'same'}");
+        writeLocaleFile("zh-TW.json", "{'a': 'same', 'b': null}");
+        writeLocaleFile("fr.json", "{'a': 'fr a'}");
+
+        Path bundleFile = localeDir.resolveSibling(LocaleBundleCompiler.getBundleFileName(localeDir.getFileName().toString()));
+        LocaleBundleCompiler.compile(localeDir, bundleFile);
+
+        Map<LocaleKey, Map<String, String>> locales = LocaleFileLoader.loadLocaleFiles("test", localeDir, Runnable::run);
+        ByteBuffer bundleBuffer = LocaleFileLoader.readLocaleBundle(bundleFile.toUri().toURL());
+        Map<LocaleKey, Map<String, String>> bundle = LocaleBundle.read(bundleBuffer);
+        assertEquals(locales, bundle);
+        assertSame(bundle.get(LocaleKey.ENGLISH).get("b"), bundle.get(LocaleKey.get(Locale.TAIWAN)).get("a"));
+
+        // Bundles are read straight into a provider, which looks up the same texts as one created from json
+        LocaleTextProvider jsonProvider = LocaleTextProvider.create("test", locales, Collections.emptyMap(), null);
+        LocaleTextProvider bundleProvider = LocaleBundle.createProvider("test", bundleBuffer, Collections.emptyMap(), null);
+        for (Locale locale : new Locale[]{Locale.ENGLISH, Locale.TAIWAN, Locale.FRENCH, Locale.JAPANESE}) {
+            for (String key : new String[]{"a", "b", "c"}) {
+                LocaleText expected = jsonProvider.getText(LocaleKey.get(locale), key);
+                LocaleText actual = bundleProvider.getText(LocaleKey.get(locale), key);
+                assertEquals(expected == null ? null : expected.getText(), actual == null ? null : actual.getText());
+            }
+        }
+        assertEquals(2, bundleProvider.getKeyIndex().size());
+        assertSame(
+                bundleProvider.getText(LocaleKey.ENGLISH, "b").getText(),
+                bundleProvider.getText(LocaleKey.get(Locale.TAIWAN), "a").getText()
+        );
+
+        byte[] bytes = Files.readAllBytes(bundleFile);
+        bytes[bytes.length / 2] ^= 0x7F;
+        Files.write(bundleFile, bytes);
+        try {
+            LocaleBundle.createProvider("test", LocaleFileLoader.readLocaleBundle(bundleFile.toUri().toURL()),
+                    Collections.emptyMap(), null);
+        } catch (IOException ignored) {
+            // Corrupt bundles either fail to load, or load garbled text
+        }
+
+        Files.write(bundleFile, new byte[]{1, 2, 3});
+        assertThrows(IOException.class, () -> LocaleBundle.read(LocaleFileLoader.readLocaleBundle(bundleFile.toUri().toURL())));
+        assertThrows(IOException.class, () -> LocaleBundle.createProvider("test",
+                LocaleFileLoader.readLocaleBundle(bundleFile.toUri().toURL()), Collections.emptyMap(), null));
+        Files.delete(bundleFile);
+    }
+}
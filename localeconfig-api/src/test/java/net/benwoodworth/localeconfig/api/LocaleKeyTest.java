@@ -0,0 +1,46 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocaleKeyTest {
+    @Test
+    void getReturnsCanonicalInstance() {
+        assertSame(LocaleKey.get(Locale.TAIWAN), LocaleKey.get(new Locale("ZH", "tw")));
+        assertSame(LocaleKey.get(Locale.TAIWAN), LocaleKey.get("zh", "TW", ""));
+        assertSame(LocaleKey.DEFAULT, LocaleKey.get(null));
+        assertSame(LocaleKey.DEFAULT, LocaleKey.get(Locale.ROOT));
+    }
+
+    @Test
+    void broadened() {
+        LocaleKey localeKey = LocaleKey.get(new Locale("zh", "TW", "variant"));
+
+        assertSame(LocaleKey.get(Locale.TAIWAN), localeKey.broadened());
+        assertSame(LocaleKey.get(Locale.CHINESE), localeKey.broadened().broadened());
+        assertSame(LocaleKey.DEFAULT, localeKey.broadened().broadened().broadened());
+        assertSame(LocaleKey.DEFAULT, LocaleKey.DEFAULT.broadened());
+    }
+
+    @Test
+    void clientLocalesAreNotInterned() {
+        // Made up locales, like ones sent by a modified client, are equal by value without filling up the pool
+        for (int i = 0; i < LocaleKey.MAX_INTERNED * 2; i++) {
+            LocaleKey localeKey = LocaleKey.get(new Locale("en", "US", "v" + i));
+            assertEquals(localeKey, LocaleKey.get(new Locale("en", "US", "v" + i)));
+            assertEquals(localeKey.hashCode(), LocaleKey.get(new Locale("en", "US", "v" + i)).hashCode());
+            assertSame(LocaleKey.get(Locale.US), localeKey.broadened());
+        }
+
+        LocaleKey madeUp = LocaleKey.get(new Locale("qq", "ZZ"));
+        assertNotSame(madeUp, LocaleKey.get(new Locale("qq", "ZZ")));
+        assertEquals(madeUp, LocaleKey.get(new Locale("qq", "ZZ")));
+        assertNotEquals(madeUp, LocaleKey.get(new Locale("qq", "ZY")));
+        assertNotEquals(madeUp, LocaleKey.get(new Locale("qq")));
+
+        assertSame(LocaleKey.get(Locale.CANADA_FRENCH), LocaleKey.get(new Locale("fr", "CA")));
+    }
+}
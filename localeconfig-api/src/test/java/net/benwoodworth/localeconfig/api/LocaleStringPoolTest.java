@@ -0,0 +1,38 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocaleStringPoolTest {
+    @Test
+    void addStoresEqualTextsOnce() {
+        LocaleStringPool pool = new LocaleStringPool();
+        Random random = new Random(0);
+
+        List<String> texts = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            // Texts that repeat, including long texts that make the pool grow
+            String text = random.nextInt(4) == 0
+                    ? new String(new char[random.nextInt(2000)]).replace('\0', (char) ('a' + i % 26))
+                    : "text " + random.nextInt(1000) + " \u00E9";
+
+            texts.add(text);
+            ids.add(pool.add(text));
+        }
+
+        for (int i = 0; i < texts.size(); i++) {
+            assertEquals(texts.get(i), pool.getText(ids.get(i)));
+            assertEquals(ids.get(i).intValue(), pool.add(new String(texts.get(i).toCharArray())));
+        }
+
+        assertEquals(texts.stream().distinct().count(), pool.getDistinctTextCount());
+        assertEquals(2 * texts.size(), pool.getTextCount());
+        assertEquals(pool.getTextCount() - pool.getDistinctTextCount(), pool.getDeduplicatedCount());
+    }
+}
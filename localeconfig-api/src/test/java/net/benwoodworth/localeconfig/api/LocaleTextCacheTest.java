@@ -0,0 +1,47 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocaleTextCacheTest {
+    private final LocaleText localeText = new LocaleText(Locale.ENGLISH, "$player joined");
+
+    @Test
+    void substitute() {
+        LocaleTextCache cache = new LocaleTextCache(100);
+
+        String text = cache.substitute(localeText, "player", "Steve");
+        assertEquals("Steve joined", text);
+        assertSame(text, cache.substitute(localeText, "player", "Steve"));
+        assertEquals("Alex joined", cache.substitute(localeText, "player", "Alex"));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void substituteSubstitutions() {
+        LocaleTextCache cache = new LocaleTextCache(100);
+        Substitutions substitutions = Substitutions.of("player");
+
+        String text = cache.substitute(localeText, substitutions.values("Steve"));
+        assertEquals("Steve joined", text);
+        assertSame(text, cache.substitute(localeText, substitutions.values("Steve")));
+        assertEquals("Alex joined", cache.substitute(localeText, substitutions.values("Alex")));
+    }
+
+    @Test
+    void substituteEvicts() {
+        LocaleTextCache cache = new LocaleTextCache(20);
+        for (int i = 0; i < 100; i++) {
+            cache.substitute(localeText, "player", i);
+        }
+
+        assertTrue(cache.size() <= 20);
+        assertEquals(100 - cache.size(), cache.getEvictionCount());
+    }
+}
@@ -0,0 +1,62 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocaleTextProviderRegistryTest {
+    private static LocaleTextProvider provider(String namespace, String text) {
+        Map<String, String> english = new HashMap<>();
+        english.put("key", text);
+
+        Map<LocaleKey, Map<String, String>> locales = new HashMap<>();
+        locales.put(LocaleKey.ENGLISH, english);
+        locales.put(LocaleKey.DEFAULT, english);
+
+        return LocaleTextProvider.create(namespace, locales);
+    }
+
+    @Test
+    void getTextRoutesByNamespace() {
+        LocaleTextProviderRegistry registry = new LocaleTextProviderRegistry();
+        registry.register(provider("a", "a text"), true);
+        registry.register(provider("b", "b text"), false);
+
+        assertEquals("a text", registry.getText(Locale.ENGLISH, "key").getText());
+        assertEquals("a text", registry.getText(Locale.ENGLISH, "a:key").getText());
+        assertEquals("b text", registry.getText(Locale.ENGLISH, "b:key").getText());
+        assertEquals("b text", registry.getText(Locale.ENGLISH, LocaleTextKey.parse("b:key")).getText());
+        assertNull(registry.getText(Locale.ENGLISH, "c:key"));
+        assertNull(registry.getText(Locale.ENGLISH, LocaleTextKey.parse("c:key")));
+    }
+
+    @Test
+    void registerReplacesNamespace() {
+        LocaleTextProviderRegistry registry = new LocaleTextProviderRegistry();
+        registry.register(provider("a", "old text"), true);
+        registry.register(provider("a", "new text"), false);
+
+        assertEquals("new text", registry.getText(Locale.ENGLISH, "key").getText());
+    }
+
+    @Test
+    void getTextWithoutDefaultNamespace() {
+        LocaleTextProviderRegistry registry = new LocaleTextProviderRegistry();
+        registry.register(provider("a", "a text"), false);
+
+        assertThrows(IllegalStateException.class, () -> registry.getText(Locale.ENGLISH, "key"));
+        assertEquals("a text", registry.getText(Locale.ENGLISH, "a:key").getText());
+    }
+
+    @Test
+    void registeredVanillaNamespaceIsNotReplaced() {
+        LocaleTextProviderRegistry registry = new LocaleTextProviderRegistry();
+        registry.register(provider("minecraft", "custom text"), false);
+
+        assertEquals("custom text", registry.getText(Locale.ENGLISH, "minecraft:key").getText());
+    }
+}
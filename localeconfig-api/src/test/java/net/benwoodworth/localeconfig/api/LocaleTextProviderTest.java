@@ -0,0 +1,283 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.NumberFormat;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocaleTextProviderTest {
+    private static Map<String, String> localeTexts(String... keyValuePairs) {
+        Map<String, String> result = new HashMap<>();
+        for (int i = 0; i < keyValuePairs.length; i += 2) {
+            result.put(keyValuePairs[i], keyValuePairs[i + 1]);
+        }
+        return result;
+    }
+
+    private static Map<LocaleKey, Map<String, String>> locales() {
+        Map<LocaleKey, Map<String, String>> locales = new HashMap<>();
+        locales.put(LocaleKey.ENGLISH, localeTexts("a", "en a", "b", "en b", "c", "en c"));
+        locales.put(LocaleKey.DEFAULT, locales.get(LocaleKey.ENGLISH));
+        locales.put(LocaleKey.get(Locale.CHINESE), localeTexts("a", "zh a", "b", "zh b", "c", null));
+        locales.put(LocaleKey.get(Locale.TAIWAN), localeTexts("a", "zh-TW a", "b", null, "c", null));
+        locales.put(LocaleKey.get(Locale.forLanguageTag("pt-PT")), localeTexts("a", "pt-PT a", "b", null, "c", null));
+        locales.put(LocaleKey.get(Locale.forLanguageTag("es")), localeTexts("a", "es a", "b", "es b", "c", null));
+        return locales;
+    }
+
+    @Test
+    void getTextBroadensLocale() {
+        LocaleTextProvider provider = LocaleTextProvider.create("test", locales());
+
+        assertEquals("zh-TW a", provider.getText(Locale.TAIWAN, "a").getText());
+        assertEquals("zh b", provider.getText(Locale.TAIWAN, "b").getText());
+        assertEquals("en c", provider.getText(Locale.TAIWAN, "c").getText());
+        assertEquals("zh a", provider.getText(Locale.forLanguageTag("zh-HK"), "a").getText());
+        assertEquals("en a", provider.getText(Locale.FRENCH, "a").getText());
+        assertEquals("en a", provider.getText((Locale) null, "a").getText());
+        assertNull(provider.getText(Locale.TAIWAN, "missing"));
+    }
+
+    @Test
+    void getTextFollowsFallbackChain() {
+        Map<LocaleKey, List<LocaleKey>> fallbackChains = new HashMap<>();
+        fallbackChains.put(
+                LocaleKey.get(Locale.forLanguageTag("pt-BR")),
+                Arrays.asList(LocaleKey.get(Locale.forLanguageTag("pt-PT")), LocaleKey.get(Locale.forLanguageTag("es")))
+        );
+
+        LocaleTextProvider provider = LocaleTextProvider.create("test", locales(), fallbackChains);
+        Locale ptBr = Locale.forLanguageTag("pt-BR");
+
+        assertEquals("pt-PT a", provider.getText(ptBr, "a").getText());
+        assertEquals("es b", provider.getText(ptBr, "b").getText());
+        assertEquals("en c", provider.getText(ptBr, "c").getText());
+        assertEquals(ptBr, provider.getText(ptBr, "c").getLocale());
+    }
+
+    @Test
+    void getTextReturnsCachedLocaleText() {
+        LocaleTextProvider provider = LocaleTextProvider.create("test", locales());
+
+        assertSame(provider.getText(Locale.TAIWAN, "b"), provider.getText(Locale.TAIWAN, "b"));
+    }
+
+    @Test
+    void getTextReportsRequestedLocale() {
+        LocaleTextProvider provider = LocaleTextProvider.create("test", locales());
+
+        assertEquals(Locale.TAIWAN, provider.getText(Locale.TAIWAN, "c").getLocale());
+        assertEquals(Locale.US, provider.getText(Locale.US, "a").getLocale());
+        assertEquals(Locale.CANADA_FRENCH, provider.getText(Locale.CANADA_FRENCH, "a").getLocale());
+        assertEquals(Locale.ENGLISH, provider.getText((Locale) null, "a").getLocale());
+        assertSame(provider.getText(Locale.US, "a"), provider.getText(Locale.US, "a"));
+    }
+
+    @Test
+    void getTextFormatsForRequestedLocale() {
+        // Only en.json and fr.json, so every country's lookups use their language's texts
+        Map<LocaleKey, Map<String, String>> locales = new HashMap<>();
+        locales.put(LocaleKey.ENGLISH, localeTexts("price", "Price: ${price,currency}"));
+        locales.put(LocaleKey.DEFAULT, locales.get(LocaleKey.ENGLISH));
+        locales.put(LocaleKey.get(Locale.FRENCH), localeTexts("price", "Prix : ${price,currency}"));
+        LocaleTextProvider provider = LocaleTextProvider.create("test", locales);
+
+        assertEquals("Price: $5.00", provider.getText(Locale.US, "price").substitute("price", 5));
+        assertEquals("Price: \u00A35.00", provider.getText(Locale.UK, "price").substitute("price", 5));
+        assertEquals(
+                "Prix : " + NumberFormat.getCurrencyInstance(Locale.FRANCE).format(5),
+                provider.getText(Locale.FRANCE, "price").substitute("price", 5)
+        );
+        assertEquals(
+                "Prix : " + NumberFormat.getCurrencyInstance(Locale.CANADA_FRENCH).format(5),
+                provider.getText(Locale.CANADA_FRENCH, "price").substitute("price", 5)
+        );
+    }
+
+    @Test
+    void getTextWithLocaleTextKey() {
+        LocaleTextProvider provider = LocaleTextProvider.create("test", locales());
+
+        assertSame(provider.getText(Locale.TAIWAN, "b"), provider.getText(Locale.TAIWAN, LocaleTextKey.parse("b")));
+        assertNull(provider.getText(Locale.TAIWAN, LocaleTextKey.parse("missing")));
+    }
+
+    @Test
+    void getTextRebindsLocaleTextKey() {
+        LocaleTextKey key = LocaleTextKey.parse("b");
+        LocaleTextProvider provider = LocaleTextProvider.create("test", locales());
+        assertEquals("en b", provider.getText(Locale.FRENCH, key).getText());
+
+        Map<LocaleKey, Map<String, String>> locales = new HashMap<>();
+        locales.put(LocaleKey.ENGLISH, localeTexts("0", "en 0", "b", "new en b"));
+        locales.put(LocaleKey.DEFAULT, locales.get(LocaleKey.ENGLISH));
+        LocaleTextProvider reloadedProvider = LocaleTextProvider.create("test", locales);
+        assertEquals("new en b", reloadedProvider.getText(Locale.FRENCH, key).getText());
+    }
+
+    @Test
+    void createLazyParsesLocalesWhenNeeded() throws Exception {
+        Map<LocaleKey, Map<String, String>> locales = locales();
+        Map<LocaleKey, AtomicInteger> parseCounts = new HashMap<>();
+        Map<LocaleKey, Supplier<Map<String, String>>> localeFiles = new HashMap<>();
+        for (LocaleKey localeKey : locales.keySet()) {
+            if (!localeKey.equals(LocaleKey.DEFAULT)) {
+                AtomicInteger parseCount = new AtomicInteger();
+                parseCounts.put(localeKey, parseCount);
+                localeFiles.put(localeKey, () -> {
+                    parseCount.incrementAndGet();
+                    return locales.get(localeKey);
+                });
+            }
+        }
+
+        LocaleTextProvider provider = LocaleTextProvider.createLazy("test", localeFiles, Collections.emptyMap(), null);
+        assertEquals(1, parseCounts.get(LocaleKey.ENGLISH).get());
+        assertEquals(0, parseCounts.get(LocaleKey.get(Locale.TAIWAN)).get());
+
+        // Concurrent first lookups parse zh-TW and its fallback, zh, once
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<LocaleText>> lookups = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                lookups.add(executor.submit(() -> provider.getText(Locale.TAIWAN, "b")));
+            }
+            for (Future<LocaleText> lookup : lookups) {
+                assertEquals("zh b", lookup.get().getText());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, parseCounts.get(LocaleKey.get(Locale.TAIWAN)).get());
+        assertEquals(1, parseCounts.get(LocaleKey.get(Locale.CHINESE)).get());
+        assertEquals(0, parseCounts.get(LocaleKey.get(Locale.forLanguageTag("es"))).get());
+        assertEquals(1, parseCounts.get(LocaleKey.ENGLISH).get());
+
+        LocaleTextProvider eagerProvider = LocaleTextProvider.create("test", locales);
+        for (Locale locale : Arrays.asList(Locale.TAIWAN, Locale.forLanguageTag("zh-HK"), Locale.FRENCH, null)) {
+            for (String key : Arrays.asList("a", "b", "c", "missing")) {
+                LocaleText lazyText = provider.getText(locale, key);
+                LocaleText eagerText = eagerProvider.getText(locale, key);
+                assertEquals(eagerText == null ? null : eagerText.getText(), lazyText == null ? null : lazyText.getText());
+            }
+        }
+    }
+
+    @Test
+    void createLazyFindsKeysMissingFromEnglish() {
+        Map<LocaleKey, Map<String, String>> locales = new HashMap<>();
+        locales.put(LocaleKey.ENGLISH, localeTexts("a", "en a"));
+        locales.put(LocaleKey.DEFAULT, locales.get(LocaleKey.ENGLISH));
+        locales.put(LocaleKey.get(Locale.FRENCH), localeTexts("a", "fr a", "b", "fr b"));
+
+        Map<LocaleKey, Supplier<Map<String, String>>> localeFiles = new HashMap<>();
+        localeFiles.put(LocaleKey.ENGLISH, () -> locales.get(LocaleKey.ENGLISH));
+        localeFiles.put(LocaleKey.get(Locale.FRENCH), () -> locales.get(LocaleKey.get(Locale.FRENCH)));
+
+        LocaleTextProvider eagerProvider = LocaleTextProvider.create("test", locales);
+        LocaleTextProvider lazyProvider = LocaleTextProvider.createLazy("test", localeFiles, Collections.emptyMap(), null);
+
+        // Bound to the key index before French is parsed
+        LocaleTextKey key = LocaleTextKey.parse("b");
+        assertNull(lazyProvider.getText(Locale.ENGLISH, key));
+
+        for (LocaleTextProvider provider : Arrays.asList(eagerProvider, lazyProvider)) {
+            assertEquals("fr b", provider.getText(Locale.CANADA_FRENCH, key).getText());
+            assertEquals("fr b", provider.getText(Locale.FRENCH, "b").getText());
+            assertEquals("en a", provider.getText(Locale.ENGLISH, "a").getText());
+            assertNull(provider.getText(Locale.ENGLISH, "b"));
+        }
+
+        // Updated locales are still resolved when they're first looked up
+        LocaleTextProvider updatedProvider = lazyProvider.update(locales, Collections.singleton(LocaleKey.ENGLISH));
+        assertEquals(0, updatedProvider.getMemoryReport().getLocaleCount());
+        assertEquals("fr b", updatedProvider.getText(Locale.FRENCH, "b").getText());
+        assertEquals(1, updatedProvider.getMemoryReport().getLocaleCount());
+    }
+
+    @Test
+    void createStoresEqualTextsOnce() {
+        Map<LocaleKey, Map<String, String>> locales = new HashMap<>();
+        locales.put(LocaleKey.ENGLISH, localeTexts("a", new String("colour"), "b", "en b"));
+        locales.put(LocaleKey.DEFAULT, locales.get(LocaleKey.ENGLISH));
+        locales.put(LocaleKey.get(Locale.UK), localeTexts("a", new String("colour"), "b", null));
+
+        LocaleTextProvider provider = LocaleTextProvider.create("test", locales);
+        assertEquals("colour", provider.getText(Locale.UK, "a").getText());
+        assertEquals("en b", provider.getText(Locale.UK, "b").getText());
+        assertSame(provider.getText(Locale.ENGLISH, "a").getText(), provider.getText(Locale.UK, "a").getText());
+        assertSame(provider.getText(Locale.ENGLISH, "a").getTemplate(), provider.getText(Locale.UK, "a").getTemplate());
+        assertSame(provider.getText(Locale.ENGLISH, "b").getTemplate(), provider.getText(Locale.US, "b").getTemplate());
+
+        LocaleMemoryReport report = provider.getMemoryReport();
+        assertEquals(3, report.getLocaleCount());
+        assertEquals(2, report.getKeyCount());
+        assertEquals(3, report.getTextCount());
+        assertEquals(2, report.getDistinctTextCount());
+        assertEquals(1, report.getDeduplicatedTextCount());
+        assertEquals(LocaleStringPool.getRetainedSize("colour"), report.getBytesSaved());
+        assertTrue(report.getTextBytes() >= 2 * "colouren b".length());
+    }
+
+    @Test
+    void equalPluralTextsUseEachLocalesPluralRule() {
+        String text = "${n,plural, one{# one} few{# few} many{# many} other{# other}}";
+        Locale russian = Locale.forLanguageTag("ru");
+
+        Map<LocaleKey, Map<String, String>> locales = new HashMap<>();
+        locales.put(LocaleKey.ENGLISH, localeTexts("a", new String(text), "b", "en b"));
+        locales.put(LocaleKey.DEFAULT, locales.get(LocaleKey.ENGLISH));
+        locales.put(LocaleKey.get(russian), localeTexts("a", new String(text), "b", "ru b"));
+
+        // Whichever locale's template is compiled first, the other locale's plural rule is still used
+        for (boolean englishFirst : new boolean[]{true, false}) {
+            LocaleTextProvider provider = LocaleTextProvider.create("test", locales);
+            assertEquals(1, provider.getMemoryReport().getDeduplicatedTextCount());
+
+            LocaleText english = provider.getText(Locale.ENGLISH, "a");
+            LocaleText russianText = provider.getText(russian, "a");
+            if (englishFirst) {
+                assertEquals("3 other", english.substitute("n", 3));
+            }
+
+            assertEquals("3 few", russianText.substitute("n", 3));
+            assertEquals("5 many", russianText.substitute("n", 5));
+            assertEquals("21 one", russianText.substitute("n", 21));
+            assertEquals("3 other", english.substitute("n", 3));
+            assertEquals("1 one", english.substitute("n", 1));
+
+            assertNotSame(english.getTemplate(), russianText.getTemplate());
+            assertSame(english.getTemplate(), provider.getText(Locale.UK, "a").getTemplate());
+            assertSame(russianText.getTemplate(), provider.getText(Locale.forLanguageTag("ru-RU"), "a").getTemplate());
+            assertSame(provider.getText(Locale.ENGLISH, "b").getTemplate(), provider.getText(Locale.US, "b").getTemplate());
+        }
+    }
+
+    @Test
+    void updateReusesUnchangedLocales() {
+        Map<LocaleKey, Map<String, String>> locales = locales();
+        LocaleTextProvider provider = LocaleTextProvider.create("test", locales);
+        LocaleText zhText = provider.getText(Locale.TAIWAN, "b");
+        LocaleText enText = provider.getText(Locale.US, "a");
+        long textCount = provider.getMemoryReport().getTextCount();
+
+        LocaleKey es = LocaleKey.get(Locale.forLanguageTag("es"));
+        locales.put(es, localeTexts("a", "new es a", "b", "es b", "c", null));
+        LocaleTextProvider updatedProvider = provider.update(locales, Collections.singleton(es));
+
+        assertEquals("new es a", updatedProvider.getText(es, "a").getText());
+        assertSame(zhText, updatedProvider.getText(Locale.TAIWAN, "b"));
+        assertSame(enText, updatedProvider.getText(Locale.US, "a"));
+
+        // Only the changed locale's texts are added again
+        assertEquals(textCount + 2, updatedProvider.getMemoryReport().getTextCount());
+    }
+}
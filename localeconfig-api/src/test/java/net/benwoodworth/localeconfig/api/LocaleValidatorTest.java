@@ -0,0 +1,89 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocaleValidatorTest {
+    private static Map<String, String> localeTexts(String... keyValuePairs) {
+        Map<String, String> result = new HashMap<>();
+        for (int i = 0; i < keyValuePairs.length; i += 2) {
+            result.put(keyValuePairs[i], keyValuePairs[i + 1]);
+        }
+        return result;
+    }
+
+    private static Map<LocaleKey, Map<String, String>> locales() {
+        Map<LocaleKey, Map<String, String>> locales = new HashMap<>();
+        locales.put(LocaleKey.ENGLISH, localeTexts(
+                "a", "Hello, $player!",
+                "b", "${count,plural, one{# item} other{# items for $player}}",
+                "c", null,
+                "d", "en d"
+        ));
+        locales.put(LocaleKey.DEFAULT, locales.get(LocaleKey.ENGLISH));
+        locales.put(LocaleKey.get(Locale.FRENCH), localeTexts(
+                "a", "Bonjour, $name !",
+                "b", "${count,plural, one{# objet pour $player} other{# objets pour $player}}",
+                "c", "fr c",
+                "e", "fr e"
+        ));
+        locales.put(LocaleKey.get(Locale.GERMAN), localeTexts(
+                "a", "Hallo, $player!",
+                "b", null,
+                "c", null,
+                "d", "de d"
+        ));
+        return locales;
+    }
+
+    @Test
+    void validate() {
+        ValidationReport report = LocaleValidator.validate("test", locales());
+
+        assertFalse(report.isValid());
+        assertFalse(report.isEnglishMissing());
+        assertEquals(Collections.singletonList("c"), report.getNullKeys());
+
+        assertEquals(1, report.getLocaleIssues().size());
+        ValidationReport.LocaleIssues frIssues = report.getLocaleIssues().get(0);
+        assertEquals(Locale.FRENCH, frIssues.getLocale());
+        assertEquals(Collections.singletonList("d"), frIssues.getMissingKeys());
+        assertEquals(Collections.singletonList("e"), frIssues.getExtraKeys());
+        assertEquals(Collections.singletonList("a"), frIssues.getPlaceholderMismatches());
+        assertEquals("fr has 1 missing key (d), 1 extra key (e), 1 placeholder mismatch (a)", frIssues.toString());
+    }
+
+    @Test
+    void validateWithoutEnglish() {
+        Map<LocaleKey, Map<String, String>> locales = locales();
+        locales.remove(LocaleKey.ENGLISH);
+        locales.remove(LocaleKey.DEFAULT);
+
+        ValidationReport report = LocaleValidator.validate("test", locales);
+        assertTrue(report.isEnglishMissing());
+        assertTrue(report.getLocaleIssues().isEmpty());
+    }
+
+    @Test
+    void validateLazilyLoadedLocales() {
+        Map<LocaleKey, Map<String, String>> locales = locales();
+        Map<LocaleKey, Supplier<Map<String, String>>> localeFiles = new HashMap<>();
+        for (Map.Entry<LocaleKey, Map<String, String>> locale : locales.entrySet()) {
+            if (!locale.getKey().equals(LocaleKey.DEFAULT)) {
+                localeFiles.put(locale.getKey(), locale::getValue);
+            }
+        }
+
+        LocaleTextProvider provider = LocaleTextProvider.createLazy("test", localeFiles, Collections.emptyMap(), Runnable::run);
+        assertTrue(provider.getValidationReport().join().getLocaleIssues().isEmpty());
+
+        provider.getText(Locale.FRENCH, "a");
+        provider.getText(Locale.GERMAN, "a");
+        ValidationReport report = provider.getValidationReport().join();
+        assertEquals(LocaleValidator.validate("test", locales).toString(), report.toString());
+    }
+}
@@ -0,0 +1,49 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlatformTest {
+    @TempDir
+    Path langDir;
+
+    private void writeLangFile(String fileName, String json) throws IOException {
+        Files.write(langDir.resolve(fileName), json.replace('\'', '"').getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void spongeVanillaProvider() throws IOException {
+        writeLangFile("en_us.json", "{'block.minecraft.stone': 'Stone', 'block.minecraft.dirt': 'Dirt'}");
+        writeLangFile("fr_fr.json", "{'block.minecraft.stone': 'Pierre'}");
+        writeLangFile("de_de.json", "{'block.minecraft.stone': 'Stein'}");
+
+        Platform platform = new Platform.SpongePlatform(langDir.toUri().toURL());
+        LocaleTextProvider provider = platform.getVanillaProvider();
+        assertSame(provider, platform.getVanillaProvider());
+        assertEquals(0, provider.getMemoryReport().getLocaleCount());
+
+        assertEquals("Pierre", provider.getText(Locale.FRANCE, "block.minecraft.stone").getText());
+        assertEquals("Dirt", provider.getText(Locale.FRANCE, "block.minecraft.dirt").getText());
+        assertEquals(1, provider.getMemoryReport().getLocaleCount());
+
+        // en_us is Minecraft's English, so it's used as the default
+        assertEquals("Stone", provider.getText(Locale.US, "block.minecraft.stone").getText());
+        assertEquals("Stone", provider.getText(Locale.JAPANESE, "block.minecraft.stone").getText());
+    }
+
+    @Test
+    void spongeVanillaProviderWithoutAssets() {
+        Platform platform = new Platform.SpongePlatform(null);
+        LocaleTextProvider provider = platform.getVanillaProvider();
+        assertSame(provider, platform.getVanillaProvider());
+        assertEquals(0, provider.getKeyIndex().size());
+    }
+}
@@ -0,0 +1,36 @@
+package net.benwoodworth.localeconfig.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerLocaleCacheTest {
+    @Test
+    void getValidatesRawLocale() {
+        PlayerLocaleCache cache = new PlayerLocaleCache();
+        UUID playerId = UUID.randomUUID();
+        PlayerLocaleCache.PlayerLocale playerLocale = new PlayerLocaleCache.PlayerLocale("zh_tw", Locale.TAIWAN);
+        cache.put(playerId, playerLocale);
+
+        assertSame(playerLocale, cache.get(playerId, "zh_tw"));
+        assertSame(LocaleKey.get(Locale.TAIWAN), cache.get(playerId, "zh_tw").localeKey);
+        assertNull(cache.get(playerId, "en_us"));
+        assertNull(cache.get(UUID.randomUUID(), "zh_tw"));
+
+        cache.invalidate(playerId);
+        assertNull(cache.get(playerId, "zh_tw"));
+    }
+
+    @Test
+    void putIsBounded() {
+        PlayerLocaleCache cache = new PlayerLocaleCache();
+        for (int i = 0; i < PlayerLocaleCache.MAX_SIZE + 10; i++) {
+            cache.put(UUID.randomUUID(), new PlayerLocaleCache.PlayerLocale("en_us", Locale.US));
+        }
+
+        assertEquals(PlayerLocaleCache.MAX_SIZE, cache.size());
+    }
+}
@@ -3,11 +3,22 @@ package net.benwoodworth.localeconfig.api;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class SubstitutorTest {
 
@@ -34,4 +45,233 @@ class SubstitutorTest {
         // Assert
         assertEquals(expected, actual);
     }
+
+    @Test
+    void substituteGlobals() {
+        LocaleText localeText = new LocaleText(Locale.ENGLISH, "$red$a${bold}$$${ reset }");
+
+        assertEquals("\u00A7ca\u00A7l$\u00A7r", localeText.substitute(substitutions));
+    }
+
+    @Test
+    void substituteCustomGlobals() {
+        LocaleText localeText = new LocaleText(Locale.ENGLISH, "$a@$server");
+        LocaleTextCache cache = new LocaleTextCache(10);
+        assertEquals("a@$server", cache.substitute(localeText, substitutions));
+
+        Substitutions serverSubstitutions = Substitutions.of("a", "server").values("a", "Lobby");
+        assertEquals("a@Lobby", localeText.substitute(serverSubstitutions));
+        assertEquals("a@Lobby", cache.substitute(localeText, serverSubstitutions));
+
+        try {
+            LocaleApi.setGlobalSubstitution("server", "Hub");
+            assertEquals("a@Hub", localeText.substitute(substitutions));
+            assertEquals("a@Hub", cache.substitute(localeText, substitutions));
+            assertThrows(IllegalArgumentException.class, () -> localeText.substitute("server", "x"));
+
+            // Substitutions are checked against the new globals too, instead of their values being replaced
+            assertThrows(IllegalArgumentException.class, () -> localeText.substitute(serverSubstitutions));
+            assertThrows(IllegalArgumentException.class, () -> cache.substitute(localeText, serverSubstitutions));
+            assertThrows(IllegalArgumentException.class, () -> Substitutions.of("a", "server"));
+            assertThrows(IllegalArgumentException.class, () -> LocaleApi.setGlobalSubstitution("red", "x"));
+            assertThrows(IllegalArgumentException.class, () -> LocaleApi.setGlobalSubstitution("5", "x"));
+        } finally {
+            LocaleApi.setGlobalSubstitution("server", null);
+        }
+
+        assertEquals("a@$server", localeText.substitute(substitutions));
+        assertEquals("a@x", localeText.substitute("a", "a", "server", "x"));
+        assertEquals("a@Lobby", localeText.substitute(serverSubstitutions));
+    }
+
+    @Test
+    void substituteMatchesRegexSubstitution() {
+        Random random = new Random(0);
+        String[] fragments = {"$", "$$", "{", "}", " ", "\t", "a", "b5", "c3", "red", "_", "5", "x", ".", "\u00A7"};
+
+        for (int i = 0; i < 10000; i++) {
+            StringBuilder text = new StringBuilder();
+            int fragmentCount = random.nextInt(12);
+            for (int j = 0; j < fragmentCount; j++) {
+                text.append(fragments[random.nextInt(fragments.length)]);
+            }
+
+            LocaleText localeText = new LocaleText(Locale.ENGLISH, text.toString());
+            assertEquals(regexSubstitute(text.toString(), substitutions), localeText.substitute(substitutions), text.toString());
+        }
+    }
+
+    @Test
+    void substituteTo() throws IOException {
+        LocaleText localeText = new LocaleText(Locale.ENGLISH, "\u00E9 $a \uD83D\uDE00 ${b5} $red$$");
+        String expected = localeText.substitute(substitutions);
+
+        assertEquals(expected, localeText.substituteTo(new StringWriter(), substitutions).toString());
+        assertEquals("> " + expected, localeText.substituteTo(new StringBuilder("> "), substitutions).toString());
+        assertEquals(expected, ((CharBuffer) localeText.substituteTo(CharBuffer.allocate(64), substitutions).flip()).toString());
+
+        ByteBuffer bytes = localeText.substituteTo(ByteBuffer.allocate(64), substitutions);
+        assertEquals(expected, new String(bytes.array(), 0, bytes.position(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void substituteSubstitutions() {
+        String text = "$a ${a} ${ a   } ${a b c} $b5.0$$ ${c3} $c3$a $xyz ${ $";
+        LocaleText localeText = new LocaleText(Locale.ENGLISH, text);
+        Substitutions reusedSubstitutions = Substitutions.of("c3", "b5", "a");
+
+        assertEquals(
+                localeText.substitute(substitutions),
+                localeText.substitute(reusedSubstitutions.values("ccc", "bbbbb", "a"))
+        );
+        assertEquals(
+                "x x x ${a b c} $b5.0$ ${c3} $c3x $xyz ${ $",
+                localeText.substitute(reusedSubstitutions.clear().set("a", "x"))
+        );
+        assertEquals(
+                "1 2",
+                new LocaleText(Locale.ENGLISH, "$c3 $a").substitute(reusedSubstitutions.values(1, null, 2))
+        );
+    }
+
+    @Test
+    void substitutionsValidateKeys() {
+        assertThrows(IllegalArgumentException.class, () -> Substitutions.of("5a"));
+        assertThrows(IllegalArgumentException.class, () -> Substitutions.of("red"));
+        assertThrows(IllegalArgumentException.class, () -> Substitutions.of("a", "a"));
+        assertThrows(IllegalArgumentException.class, () -> Substitutions.of("a").set("b", 1));
+    }
+
+    @Test
+    void substituteFormats() {
+        LocaleText localeText = new LocaleText(
+                Locale.US,
+                "${coins,number} ${ pct , percent } ${day,date:short} ${coins,unknown} ${coins,number}"
+        );
+
+        assertEquals(
+                "1,234.5 50% 1/2/20 ${coins,unknown} 1,234.5",
+                localeText.substitute("coins", 1234.5, "pct", 0.5, "day", LocalDate.of(2020, 1, 2))
+        );
+        assertEquals(
+                "text 50% text ${coins,unknown} text",
+                localeText.substitute("coins", "text", "pct", 0.5, "day", "text")
+        );
+    }
+
+    @Test
+    void formatsOnlyCacheInternedLocales() {
+        PlaceholderFormat.NumberPlaceholderFormat format =
+                (PlaceholderFormat.NumberPlaceholderFormat) PlaceholderFormat.get("integer");
+        assertEquals("1,234", format.format(1234, Locale.US));
+        int cachedLocales = format.getCachedLocaleCount();
+
+        // Made up locales from clients are formatted, but not cached
+        for (int i = 0; i < PlaceholderFormat.MAX_CACHED_LOCALES * 2; i++) {
+            assertEquals("1,234", format.format(1234, new Locale("en", "US", "v" + i)));
+            assertEquals("1\u00A0234", format.format(1234, new Locale("fr", "FR", "v" + i)).replace('\u202F', '\u00A0'));
+        }
+        assertEquals(cachedLocales, format.getCachedLocaleCount());
+        assertTrue(format.getCachedLocaleCount() <= PlaceholderFormat.MAX_CACHED_LOCALES);
+
+        LocaleText localeText = new LocaleText(new Locale("en", "US", "made_up"), "${day,date:short}");
+        assertEquals("1/2/20", localeText.substitute("day", LocalDate.of(2020, 1, 2)));
+    }
+
+    @Test
+    void substitutePluralAndSelect() {
+        LocaleText english = new LocaleText(
+                Locale.US,
+                "${count,plural, =0{No items} one{# item} other{# items}} for ${gender,select, male{him} other{them}}"
+        );
+
+        assertEquals("No items for him", english.substitute("count", 0, "gender", "male"));
+        assertEquals("1 item for them", english.substitute("count", 1, "gender", "female"));
+        assertEquals("1,000 items for them", english.substitute("count", 1000, "gender", null));
+        assertEquals("many items for them", english.substitute("count", "many", "gender", "none"));
+        assertEquals(
+                "${count,plural, =0{No items} one{# item} other{# items}} for them",
+                english.substitute("gender", "female")
+        );
+
+        LocaleText russian = new LocaleText(
+                new Locale("ru"),
+                "${n,plural, one{# file} few{# fila} many{# files} other{# fila}} ${name}"
+        );
+
+        assertEquals("21 file a", russian.substitute("n", 21, "name", "a"));
+        assertEquals("3 fila b", russian.substitute("n", 3, "name", "b"));
+        assertEquals("11 files c", russian.substitute("n", 11, "name", "c"));
+
+        // Placeholders in branches, and malformed choices as literal text
+        LocaleText nested = new LocaleText(
+                Locale.US,
+                "${n,plural, one{$who has # {thing}} other{$who have #}} ${n,plural, one{x}} ${n,select, a{}"
+        );
+
+        assertEquals(
+                "Bob has 1 {thing} ${n,plural, one{x}} ${n,select, a{}",
+                nested.substitute("n", 1, "who", "Bob")
+        );
+    }
+
+    @Test
+    void substituteSpans() {
+        LocaleText localeText = new LocaleText(
+                Locale.ENGLISH,
+                "Hi $red$bold$a\u00A7z!$red ${b5}\u00A7R $$\"\n$c3\u00A7"
+        );
+
+        StringBuilder spans = new StringBuilder();
+        localeText.substituteSpans(
+                (text, style) -> spans.append('[').append(text).append('|').append(style.getColor())
+                        .append(style.isBold() ? "|bold" : "").append(']'),
+                substitutions
+        );
+        assertEquals("[Hi |null][a!|red|bold][ bbbbb|red][ $\"\nccc|null]", spans.toString());
+
+        assertEquals(
+                "{\"text\":\"\",\"extra\":[{\"text\":\"Hi \"},{\"text\":\"a!\",\"color\":\"red\",\"bold\":true}," +
+                        "{\"text\":\" bbbbb\",\"color\":\"red\"},{\"text\":\" $\\\"\\nccc\"}]}",
+                localeText.substituteSpans(new JsonChatBuilder(), substitutions).build()
+        );
+        assertEquals(
+                "{\"text\":\"\"}",
+                new LocaleText(Locale.ENGLISH, "$red").substituteSpans(new JsonChatBuilder(), substitutions).build()
+        );
+
+        // Values aren't parsed for formatting codes
+        assertEquals(
+                "{\"text\":\"\",\"extra\":[{\"text\":\"\u00A7cx\"}]}",
+                new LocaleText(Locale.ENGLISH, "$a").substituteSpans(new JsonChatBuilder(), Substitutions.of("a").values("\u00A7cx")).build()
+        );
+    }
+
+    // The original regex implementation of substitution
+    private static String regexSubstitute(String text, Map<String, Object> substitutions) {
+        Pattern subPattern = Pattern.compile("\\$(?:(\\$|\\w+)|\\{\\s*(\\w+)\\s*}|)|[^$]*");
+
+        Matcher matcher = subPattern.matcher(text);
+        StringBuilder result = new StringBuilder();
+        while (matcher.find()) {
+            String matchedKey = matcher.group(1);
+            if (matchedKey == null) {
+                matchedKey = matcher.group(2);
+            }
+
+            if (matchedKey != null) {
+                if (substitutions.containsKey(matchedKey)) {
+                    result.append(substitutions.get(matchedKey));
+                } else if (LocaleText.getGlobalSubstitution(matchedKey) != null) {
+                    result.append(LocaleText.getGlobalSubstitution(matchedKey));
+                } else {
+                    result.append(matcher.group());
+                }
+            } else {
+                result.append(matcher.group());
+            }
+        }
+
+        return result.toString();
+    }
 }
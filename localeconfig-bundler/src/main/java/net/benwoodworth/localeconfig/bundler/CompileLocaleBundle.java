@@ -0,0 +1,43 @@
+package net.benwoodworth.localeconfig.bundler;
+
+import net.benwoodworth.localeconfig.api.LocaleBundleCompiler;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Compiles a directory of locale json files into a bundle, so the locales don't need to be parsed when loaded.
+ *
+ * @see LocaleBundleCompiler
+ */
+public class CompileLocaleBundle extends DefaultTask {
+    private File localeDir;
+    private File bundleFile;
+
+    @InputDirectory
+    public File getLocaleDir() {
+        return localeDir;
+    }
+
+    public void setLocaleDir(File localeDir) {
+        this.localeDir = localeDir;
+    }
+
+    @OutputFile
+    public File getBundleFile() {
+        return bundleFile;
+    }
+
+    public void setBundleFile(File bundleFile) {
+        this.bundleFile = bundleFile;
+    }
+
+    @TaskAction
+    public void compile() throws IOException {
+        LocaleBundleCompiler.compile(localeDir.toPath(), bundleFile.toPath());
+    }
+}
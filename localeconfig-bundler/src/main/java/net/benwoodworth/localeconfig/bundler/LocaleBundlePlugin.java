@@ -0,0 +1,56 @@
+package net.benwoodworth.localeconfig.bundler;
+
+import net.benwoodworth.localeconfig.api.LocaleBundleCompiler;
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+import org.gradle.api.tasks.SourceSet;
+import org.gradle.api.tasks.SourceSetContainer;
+import org.gradle.api.tasks.TaskProvider;
+
+import java.io.File;
+
+/**
+ * Compiles the locale json files in src/main/resources/locales into a bundle, which is added to the jar's resources
+ * next to the locale directory. e.g. /locales.lcbundle
+ * If the locale directory doesn't exist, compiling the bundle is skipped.
+ * <p>
+ * Usage:
+ * <pre>
+ *     plugins {
+ *         id 'net.benwoodworth.localeconfig.bundle'
+ *     }
+ *
+ *     // Optional, for a different locale directory
+ *     compileLocaleBundle {
+ *         localeDir = file('src/main/resources/lang')
+ *         bundleFile = file("$buildDir/generated/localeBundle/lang.lcbundle")
+ *     }
+ * </pre>
+ */
+public class LocaleBundlePlugin implements Plugin<Project> {
+    @Override
+    public void apply(Project project) {
+        project.getPluginManager().withPlugin("java", javaPlugin -> {
+            File bundleDir = project.getLayout().getBuildDirectory().dir("generated/localeBundle").get().getAsFile();
+
+            TaskProvider<CompileLocaleBundle> compileLocaleBundle = project.getTasks().register(
+                    "compileLocaleBundle",
+                    CompileLocaleBundle.class,
+                    task -> {
+                        task.setDescription("Compiles locale json files into a locale bundle.");
+                        task.setLocaleDir(project.file("src/main/resources/locales"));
+                        task.setBundleFile(new File(bundleDir, LocaleBundleCompiler.getBundleFileName("locales")));
+
+                        // Projects without locales, e.g. ones that only load them from the data folder, have nothing
+                        // to bundle, so the build doesn't fail on the missing directory
+                        task.onlyIf(t -> task.getLocaleDir().isDirectory());
+                    }
+            );
+
+            SourceSet main = project.getExtensions().getByType(SourceSetContainer.class).getByName("main");
+            main.getResources().srcDir(bundleDir);
+
+            project.getTasks().named(main.getProcessResourcesTaskName()).configure(task -> task.dependsOn(compileLocaleBundle));
+        });
+    }
+}